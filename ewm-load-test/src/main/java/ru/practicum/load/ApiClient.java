@@ -0,0 +1,53 @@
+package ru.practicum.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Blocking JSON calls used outside the measured load: seeding, health
+ * checks and actuator metrics.
+ */
+@RequiredArgsConstructor
+public class ApiClient {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+
+    public JsonNode get(URI baseUrl, String path) throws IOException, InterruptedException {
+        return send(baseUrl, "GET", path, null);
+    }
+
+    public JsonNode post(URI baseUrl, String path, Object body) throws IOException, InterruptedException {
+        return send(baseUrl, "POST", path, body);
+    }
+
+    public JsonNode patch(URI baseUrl, String path, Object body) throws IOException, InterruptedException {
+        return send(baseUrl, "PATCH", path, body);
+    }
+
+    private JsonNode send(URI baseUrl, String method, String path, Object body)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(method + " " + request.uri() + " returned "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return response.body().isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.load;
+
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates users, categories and published events through the admin and
+ * private API of the main service, so the seeded data goes through the same
+ * validation as real data. Names carry a run id, which keeps repeated runs
+ * against a persistent database clear of unique constraints.
+ */
+@RequiredArgsConstructor
+public class DataSeeder {
+    /**
+     * Words the event texts are built from, and the search scenario queries.
+     */
+    public static final List<String> WORDS = List.of(
+            "концерт", "выставка", "лекция", "спектакль", "фестиваль", "мастер-класс", "экскурсия", "кинопоказ");
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final ApiClient apiClient;
+
+    public SeedData seed(URI mainUrl, int users, int categories, int events) throws IOException, InterruptedException {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        List<Long> userIds = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            userIds.add(apiClient.post(mainUrl, "/admin/users", Map.of(
+                    "name", "Load user " + i,
+                    "email", "load-" + runId + "-" + i + "@example.com")).get("id").asLong());
+        }
+
+        List<Long> categoryIds = new ArrayList<>(categories);
+        for (int i = 0; i < categories; i++) {
+            categoryIds.add(apiClient.post(mainUrl, "/admin/categories", Map.of(
+                    "name", "Load " + runId + " " + i)).get("id").asLong());
+        }
+
+        LocalDateTime firstEventDate = LocalDateTime.now().plusDays(30).withNano(0);
+        List<Long> eventIds = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            String word = WORDS.get(i % WORDS.size());
+            Long initiatorId = userIds.get(i % users);
+            long eventId = apiClient.post(mainUrl, "/users/" + initiatorId + "/events", Map.of(
+                    "title", "Нагрузочное событие " + i,
+                    "annotation", ("Анонс: " + word + " для нагрузочного теста ").repeat(2),
+                    "description", ("Описание: " + word + ", программа, площадка и порядок входа. ").repeat(10),
+                    "category", categoryIds.get(i % categories),
+                    "eventDate", DATE_TIME_FORMAT.format(firstEventDate.plusMinutes(i)),
+                    "location", Map.of("lat", 55.75, "lon", 37.62),
+                    "paid", i % 2 == 0,
+                    "participantLimit", 0,
+                    "requestModeration", false)).get("id").asLong();
+            apiClient.patch(mainUrl, "/admin/events/" + eventId, Map.of("stateAction", "PUBLISH_EVENT"));
+            eventIds.add(eventId);
+        }
+
+        return new SeedData(userIds, categoryIds, eventIds);
+    }
+}
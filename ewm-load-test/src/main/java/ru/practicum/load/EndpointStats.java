@@ -0,0 +1,85 @@
+package ru.practicum.load;
+
+import lombok.Getter;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of one endpoint. Latency is measured from the
+ * moment the request was scheduled to start, so time spent waiting behind a
+ * slow client is not hidden (no coordinated omission); it is split into the
+ * dispatch delay before sending and the response time after it.
+ */
+public class EndpointStats {
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    @Getter
+    private final Histogram latency = histogram();
+    @Getter
+    private final Histogram dispatchDelay = histogram();
+    @Getter
+    private final Histogram responseTime = histogram();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Records a finished request; {@code status} is {@code -1} when no
+     * response was received.
+     */
+    public void record(long scheduledNanos, long sentNanos, long completedNanos, int status) {
+        latency.recordValue(toMicros(completedNanos - scheduledNanos));
+        dispatchDelay.recordValue(toMicros(sentNanos - scheduledNanos));
+        responseTime.recordValue(toMicros(completedNanos - sentNanos));
+
+        if (status < 0) {
+            failures.increment();
+        } else if (status >= 500) {
+            serverErrors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+        } else {
+            successes.increment();
+        }
+    }
+
+    /**
+     * Counts a request that was due while the in-flight limit was reached.
+     */
+    public void drop() {
+        dropped.increment();
+    }
+
+    public long getSuccesses() {
+        return successes.sum();
+    }
+
+    public long getClientErrors() {
+        return clientErrors.sum();
+    }
+
+    public long getServerErrors() {
+        return serverErrors.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private static Histogram histogram() {
+        return new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0), MAX_LATENCY_MICROS);
+    }
+}
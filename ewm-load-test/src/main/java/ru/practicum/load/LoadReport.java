@@ -0,0 +1,87 @@
+package ru.practicum.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Text report of a load run: latency percentiles and outcomes per endpoint,
+ * the per-stage breakdown, and server-side time per service. Full latency
+ * distributions are written as HdrHistogram percentile files, one per
+ * endpoint, for plotting and comparing runs.
+ */
+public class LoadReport {
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<String, EndpointStats> endpoints;
+    private final Map<String, Map<String, ServerMetrics.Sample>> serverTimes;
+    private final Duration duration;
+
+    /**
+     * @param serverTimes server-side samples of the run per service name
+     */
+    public LoadReport(Map<String, EndpointStats> endpoints,
+                      Map<String, Map<String, ServerMetrics.Sample>> serverTimes,
+                      Duration duration) {
+        this.endpoints = endpoints;
+        this.serverTimes = serverTimes;
+        this.duration = duration;
+    }
+
+    public void print(PrintStream out) {
+        out.println();
+        out.printf("Latency from scheduled start, ms (%ds)%n", duration.toSeconds());
+        out.printf(Locale.ROOT, "%-20s %8s %8s %8s %8s %8s %8s %9s %6s %6s %6s %6s %7s%n",
+                "endpoint", "count", "rps", "p50", "p90", "p99", "p99.9", "max", "ok", "4xx", "5xx", "fail",
+                "dropped");
+        endpoints.forEach((endpoint, stats) -> {
+            Histogram latency = stats.getLatency();
+            out.printf(Locale.ROOT, "%-20s %8d %8.1f %8.1f %8.1f %8.1f %8.1f %9.1f %6d %6d %6d %6d %7d%n",
+                    endpoint, latency.getTotalCount(), latency.getTotalCount() / (double) duration.toSeconds(),
+                    millis(latency, 50), millis(latency, 90), millis(latency, 99), millis(latency, 99.9),
+                    latency.getMaxValue() / MICROS_PER_MILLI,
+                    stats.getSuccesses(), stats.getClientErrors(), stats.getServerErrors(), stats.getFailures(),
+                    stats.getDropped());
+        });
+
+        out.println();
+        out.println("Stages, ms: dispatch = scheduled start to send, response = send to response");
+        out.printf(Locale.ROOT, "%-20s %13s %13s %13s %13s%n",
+                "endpoint", "dispatch p50", "dispatch p99", "response p50", "response p99");
+        endpoints.forEach((endpoint, stats) -> out.printf(Locale.ROOT, "%-20s %13.2f %13.2f %13.2f %13.2f%n",
+                endpoint,
+                millis(stats.getDispatchDelay(), 50), millis(stats.getDispatchDelay(), 99),
+                millis(stats.getResponseTime(), 50), millis(stats.getResponseTime(), 99)));
+
+        serverTimes.forEach((service, samples) -> {
+            out.println();
+            out.printf("Server time in %s (actuator http.server.requests)%n", service);
+            out.printf(Locale.ROOT, "%-40s %8s %10s%n", "uri", "count", "mean ms");
+            samples.forEach((uri, sample) -> out.printf(Locale.ROOT, "%-40s %8d %10.2f%n",
+                    uri, sample.count(), sample.meanMillis()));
+        });
+    }
+
+    /**
+     * Writes {@code <endpoint>.hgrm} percentile distributions in milliseconds.
+     */
+    public void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, EndpointStats> entry : endpoints.entrySet()) {
+            Path file = directory.resolve(entry.getKey().replaceAll("[^A-Za-z0-9._-]+", "_") + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                entry.getValue().getLatency().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
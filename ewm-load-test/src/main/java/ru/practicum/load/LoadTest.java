@@ -0,0 +1,152 @@
+package ru.practicum.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * End-to-end load test of the main service and the stats server. Unless
+ * their URLs are given, both services are started from their executable
+ * jars (build them first with {@code mvn package -DskipTests}) on in-memory
+ * H2, or on the databases given with {@code --main-db-url} and
+ * {@code --stats-db-url}. The main service is then seeded through its API
+ * and driven with open-model traffic, either a synthetic mix or requests
+ * recorded in a file (see {@link RecordedTraffic}).
+ *
+ * <p>Run from the repository root:
+ * <pre>
+ * mvn -pl ewm-load-test exec:java -Dexec.args="--rate 200 --duration 120 --mix search=50,detail=30,request=10,stats=10"
+ * </pre>
+ * Options and defaults: {@code --rate 100} requests per second,
+ * {@code --duration 60} and {@code --warmup 10} seconds,
+ * {@code --users 100 --categories 10 --events 200} seeded entities,
+ * {@code --max-in-flight 1000}, {@code --seed 42},
+ * {@code --report-dir ewm-load-test/target/load-test}.
+ */
+public class LoadTest {
+    private static final String DEFAULT_MIX = "search=40,detail=40,request=10,stats=10";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+    private static final String STATS_JAR = "ewm-stat-service/ewm-stat-server/target/ewm-stat-server-0.0.1-SNAPSHOT-exec.jar";
+    private static final String MAIN_JAR = "ewm-main-service/target/ewm-main-service-0.0.1-SNAPSHOT.jar";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ApiClient apiClient = new ApiClient(httpClient, objectMapper);
+        Path reportDir = options.getPath("report-dir", "ewm-load-test/target/load-test");
+
+        List<ServiceProcess> started = new ArrayList<>();
+        try {
+            URI statsUrl = options.get("stats-url") != null
+                    ? URI.create(options.get("stats-url"))
+                    : boot(started, httpClient, "stats-server",
+                    options.getPath("stats-jar", STATS_JAR),
+                    options.getInt("stats-port", 19090),
+                    databaseProperties(options, "stats"), reportDir);
+
+            Map<String, String> mainProperties = databaseProperties(options, "main");
+            mainProperties.put("stats.client.base-url", statsUrl.toString());
+            URI mainUrl = options.get("main-url") != null
+                    ? URI.create(options.get("main-url"))
+                    : boot(started, httpClient, "main-service",
+                    options.getPath("main-jar", MAIN_JAR),
+                    options.getInt("main-port", 18080),
+                    mainProperties, reportDir);
+
+            TrafficSource traffic;
+            long seed = options.getLong("seed", 42);
+            if (options.get("traffic") != null) {
+                traffic = RecordedTraffic.load(Path.of(options.get("traffic")), objectMapper);
+            } else {
+                System.out.println("Seeding the main service...");
+                SeedData seedData = new DataSeeder(apiClient).seed(mainUrl,
+                        options.getInt("users", 100),
+                        options.getInt("categories", 10),
+                        options.getInt("events", 200));
+                traffic = new SyntheticTraffic(
+                        SyntheticTraffic.parseMix(options.get("mix", DEFAULT_MIX)), seedData, seed);
+            }
+
+            OpenLoadGenerator generator = new OpenLoadGenerator(httpClient,
+                    Map.of(TrafficRequest.Target.MAIN, mainUrl, TrafficRequest.Target.STATS, statsUrl),
+                    traffic,
+                    options.getDouble("rate", 100),
+                    options.getInt("max-in-flight", 1000),
+                    new Random(seed));
+
+            Duration warmup = options.getSeconds("warmup", 10);
+            if (!warmup.isZero()) {
+                System.out.printf("Warming up for %ds...%n", warmup.toSeconds());
+                generator.run(warmup);
+            }
+
+            ServerMetrics serverMetrics = new ServerMetrics(apiClient);
+            Map<String, URI> services = new LinkedHashMap<>();
+            services.put("main service", mainUrl);
+            services.put("stats server", statsUrl);
+            Map<String, Map<String, ServerMetrics.Sample>> before = new LinkedHashMap<>();
+            for (Map.Entry<String, URI> service : services.entrySet()) {
+                before.put(service.getKey(), serverMetrics.snapshot(service.getValue()));
+            }
+
+            Duration duration = options.getSeconds("duration", 60);
+            System.out.printf("Running for %ds...%n", duration.toSeconds());
+            Map<String, EndpointStats> stats = generator.run(duration);
+
+            Map<String, Map<String, ServerMetrics.Sample>> serverTimes = new LinkedHashMap<>();
+            for (Map.Entry<String, URI> service : services.entrySet()) {
+                serverTimes.put(service.getKey(), ServerMetrics.difference(before.get(service.getKey()),
+                        serverMetrics.snapshot(service.getValue())));
+            }
+
+            LoadReport report = new LoadReport(stats, serverTimes, duration);
+            report.print(System.out);
+            report.writeHistograms(reportDir);
+            System.out.println();
+            System.out.println("Latency distributions written to " + reportDir.toAbsolutePath());
+        } finally {
+            Collections.reverse(started);
+            for (ServiceProcess process : started) {
+                process.close();
+            }
+        }
+    }
+
+    private static URI boot(List<ServiceProcess> started, HttpClient httpClient, String name, Path jar, int port,
+                            Map<String, String> properties, Path reportDir) throws Exception {
+        System.out.printf("Starting %s on port %d...%n", name, port);
+        ServiceProcess process = ServiceProcess.start(name, jar, port, properties, reportDir);
+        started.add(process);
+        process.awaitHealthy(httpClient, STARTUP_TIMEOUT);
+        return process.getBaseUrl();
+    }
+
+    // Без --<service>-db-url сервис работает на H2 в памяти из профиля dev
+    private static Map<String, String> databaseProperties(LoadTestOptions options, String service) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        String url = options.get(service + "-db-url");
+        // Учётные данные по умолчанию те же, что у баз из docker-compose.yml
+        String defaultCredentials = service.equals("main") ? "ewm" : "stats";
+        if (url == null) {
+            properties.put("spring.profiles.active", "dev");
+        } else {
+            properties.put("spring.datasource.url", url);
+            properties.put("spring.datasource.username", options.get(service + "-db-user", defaultCredentials));
+            properties.put("spring.datasource.password", options.get(service + "-db-password", defaultCredentials));
+        }
+        properties.put("spring.jpa.show-sql", "false");
+        return properties;
+    }
+}
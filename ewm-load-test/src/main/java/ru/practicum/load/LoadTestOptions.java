@@ -0,0 +1,71 @@
+package ru.practicum.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command-line options of {@link LoadTest}, given as {@code --name value}.
+ */
+public class LoadTestOptions {
+    private static final Set<String> NAMES = Set.of(
+            "rate", "duration", "warmup", "mix", "traffic", "max-in-flight", "seed",
+            "users", "categories", "events",
+            "main-url", "stats-url", "main-jar", "stats-jar", "main-port", "stats-port",
+            "main-db-url", "main-db-user", "main-db-password",
+            "stats-db-url", "stats-db-user", "stats-db-password",
+            "report-dir");
+
+    private final Map<String, String> values;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || !NAMES.contains(args[i].substring(2))) {
+                throw new IllegalArgumentException("Unknown option " + args[i] + ", expected one of " + NAMES);
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Option " + args[i] + " requires a value");
+            }
+            values.put(args[i].substring(2), args[i + 1]);
+        }
+        return new LoadTestOptions(values);
+    }
+
+    public String get(String name) {
+        return values.get(name);
+    }
+
+    public String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    public int getInt(String name, int defaultValue) {
+        return values.containsKey(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+    }
+
+    public long getLong(String name, long defaultValue) {
+        return values.containsKey(name) ? Long.parseLong(values.get(name)) : defaultValue;
+    }
+
+    public double getDouble(String name, double defaultValue) {
+        return values.containsKey(name) ? Double.parseDouble(values.get(name)) : defaultValue;
+    }
+
+    /**
+     * A duration in seconds.
+     */
+    public Duration getSeconds(String name, long defaultSeconds) {
+        return Duration.ofSeconds(getLong(name, defaultSeconds));
+    }
+
+    public Path getPath(String name, String defaultValue) {
+        return Path.of(get(name, defaultValue));
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.load;
+
+import lombok.RequiredArgsConstructor;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests arrive as a Poisson process at the target rate
+ * regardless of how fast earlier ones complete, as users of a public site
+ * do. A slow server therefore builds up requests in flight instead of
+ * quietly lowering the offered load; requests due while
+ * {@code maxInFlight} are outstanding are dropped and reported.
+ */
+@RequiredArgsConstructor
+public class OpenLoadGenerator {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+    private final HttpClient httpClient;
+    private final Map<TrafficRequest.Target, URI> baseUrls;
+    private final TrafficSource trafficSource;
+    private final double ratePerSecond;
+    private final int maxInFlight;
+    private final Random random;
+
+    /**
+     * Sends requests for the given time and waits for the outstanding ones.
+     *
+     * @return statistics per endpoint, sorted by endpoint name
+     */
+    public Map<String, EndpointStats> run(Duration duration) throws InterruptedException {
+        Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long scheduled = start;
+        while (true) {
+            // Интервалы между приходами распределены экспоненциально
+            scheduled += (long) (-Math.log(1 - random.nextDouble()) / ratePerSecond * 1_000_000_000L);
+            if (scheduled - end >= 0) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            TrafficRequest request = trafficSource.next();
+            EndpointStats endpointStats = stats.computeIfAbsent(request.endpoint(), key -> new EndpointStats());
+            if (!inFlight.tryAcquire()) {
+                endpointStats.drop();
+                continue;
+            }
+
+            long scheduledAt = scheduled;
+            long sentAt = System.nanoTime();
+            httpClient.sendAsync(toHttpRequest(request), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        endpointStats.record(scheduledAt, sentAt, System.nanoTime(),
+                                response == null ? -1 : response.statusCode());
+                        inFlight.release();
+                    });
+        }
+
+        if (!inFlight.tryAcquire(maxInFlight, DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Requests still in flight " + DRAIN_TIMEOUT_SECONDS
+                    + "s after the load stopped");
+        }
+        return new TreeMap<>(stats);
+    }
+
+    private HttpRequest toHttpRequest(TrafficRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUrls.get(request.target()).resolve(request.path()))
+                .timeout(REQUEST_TIMEOUT);
+        if (request.body() == null) {
+            return builder.method(request.method(), HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .method(request.method(), HttpRequest.BodyPublishers.ofString(request.body()))
+                .build();
+    }
+}
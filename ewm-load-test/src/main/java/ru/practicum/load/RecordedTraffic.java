@@ -0,0 +1,73 @@
+package ru.practicum.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays requests recorded one JSON object per line, in order and in a
+ * loop:
+ * <pre>
+ * {"endpoint": "event detail", "target": "main", "method": "GET", "path": "/events/1"}
+ * {"target": "stats", "method": "POST", "path": "/hit", "body": {"app": "ewm-main-service", ...}}
+ * </pre>
+ * Only {@code path} is required; {@code target} defaults to {@code main},
+ * {@code method} to {@code GET} and {@code endpoint} to the method and the
+ * path without the query string.
+ */
+public class RecordedTraffic implements TrafficSource {
+    private final List<TrafficRequest> requests;
+    private int position;
+
+    public RecordedTraffic(List<TrafficRequest> requests) {
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("Recorded traffic is empty");
+        }
+        this.requests = List.copyOf(requests);
+    }
+
+    public static RecordedTraffic load(Path file, ObjectMapper objectMapper) throws IOException {
+        List<TrafficRequest> requests = new ArrayList<>();
+        try (var lines = Files.lines(file)) {
+            lines.filter(line -> !line.isBlank())
+                    .forEach(line -> requests.add(parse(line, objectMapper)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new RecordedTraffic(requests);
+    }
+
+    static TrafficRequest parse(String line, ObjectMapper objectMapper) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invalid recorded request: " + line, e);
+        }
+        if (!node.hasNonNull("path")) {
+            throw new IllegalArgumentException("Recorded request without path: " + line);
+        }
+
+        String path = node.get("path").asText();
+        String method = node.path("method").asText("GET").toUpperCase();
+        TrafficRequest.Target target = TrafficRequest.Target.valueOf(node.path("target").asText("main").toUpperCase());
+        String endpoint = node.hasNonNull("endpoint")
+                ? node.get("endpoint").asText()
+                : method + " " + path.split("\\?", 2)[0];
+        String body = node.hasNonNull("body") ? node.get("body").toString() : null;
+        return new TrafficRequest(endpoint, target, method, path, body);
+    }
+
+    @Override
+    public TrafficRequest next() {
+        TrafficRequest request = requests.get(position);
+        position = (position + 1) % requests.size();
+        return request;
+    }
+}
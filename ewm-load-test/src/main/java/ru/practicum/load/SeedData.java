@@ -0,0 +1,10 @@
+package ru.practicum.load;
+
+import java.util.List;
+
+/**
+ * Ids of the entities created by {@link DataSeeder}; the initiator of
+ * {@code eventIds.get(i)} is {@code userIds.get(i % userIds.size())}.
+ */
+public record SeedData(List<Long> userIds, List<Long> categoryIds, List<Long> eventIds) {
+}
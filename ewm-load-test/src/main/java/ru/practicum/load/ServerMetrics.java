@@ -0,0 +1,84 @@
+package ru.practicum.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Server-side request timings read from the actuator
+ * {@code http.server.requests} metric, per URI template. The difference of
+ * two snapshots is the time the service itself spent on the requests of a
+ * run, which separates server time from client and network time in the
+ * report; for the stats server it is the downstream cost of the main
+ * service's view lookups and hits.
+ */
+@RequiredArgsConstructor
+public class ServerMetrics {
+    private static final String METRIC_PATH = "/actuator/metrics/http.server.requests";
+
+    private final ApiClient apiClient;
+
+    public record Sample(long count, double totalSeconds) {
+
+        public Sample minus(Sample earlier) {
+            return new Sample(count - earlier.count, totalSeconds - earlier.totalSeconds);
+        }
+
+        public double meanMillis() {
+            return count == 0 ? 0 : totalSeconds * 1000 / count;
+        }
+    }
+
+    public Map<String, Sample> snapshot(URI baseUrl) throws IOException, InterruptedException {
+        Map<String, Sample> samples = new TreeMap<>();
+        JsonNode metric;
+        try {
+            metric = apiClient.get(baseUrl, METRIC_PATH);
+        } catch (IllegalStateException e) {
+            // Метрика появляется после первого обработанного запроса
+            return samples;
+        }
+
+        for (JsonNode tag : metric.path("availableTags")) {
+            if (!"uri".equals(tag.path("tag").asText())) {
+                continue;
+            }
+            for (JsonNode uri : tag.path("values")) {
+                JsonNode measurements = apiClient.get(baseUrl, METRIC_PATH + "?tag="
+                        + URLEncoder.encode("uri:" + uri.asText(), StandardCharsets.UTF_8)).path("measurements");
+                long count = 0;
+                double total = 0;
+                for (JsonNode measurement : measurements) {
+                    switch (measurement.path("statistic").asText()) {
+                        case "COUNT" -> count = measurement.path("value").asLong();
+                        case "TOTAL_TIME" -> total = measurement.path("value").asDouble();
+                        default -> {
+                        }
+                    }
+                }
+                samples.put(uri.asText(), new Sample(count, total));
+            }
+        }
+        return samples;
+    }
+
+    public static Map<String, Sample> difference(Map<String, Sample> before, Map<String, Sample> after) {
+        Map<String, Sample> difference = new TreeMap<>();
+        after.forEach((uri, sample) -> {
+            if (uri.startsWith("/actuator")) {
+                return;
+            }
+            Sample run = sample.minus(before.getOrDefault(uri, new Sample(0, 0)));
+            if (run.count() > 0) {
+                difference.put(uri, run);
+            }
+        });
+        return difference;
+    }
+}
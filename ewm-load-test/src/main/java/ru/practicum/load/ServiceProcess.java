@@ -0,0 +1,95 @@
+package ru.practicum.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A service started from its executable jar in a child JVM, with its output
+ * written to {@code <name>.log} in the report directory.
+ */
+public class ServiceProcess implements AutoCloseable {
+    private static final Duration HEALTH_POLL_INTERVAL = Duration.ofMillis(500);
+    private static final long STOP_TIMEOUT_SECONDS = 30;
+
+    private final String name;
+    private final Process process;
+    private final URI baseUrl;
+    private final Path log;
+
+    private ServiceProcess(String name, Process process, URI baseUrl, Path log) {
+        this.name = name;
+        this.process = process;
+        this.baseUrl = baseUrl;
+        this.log = log;
+    }
+
+    /**
+     * @param properties Spring properties passed as command-line arguments,
+     *                   which override the ones packaged in the jar
+     */
+    public static ServiceProcess start(String name, Path jar, int port, Map<String, String> properties, Path logDir)
+            throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(jar + " not found, build it with mvn package -DskipTests");
+        }
+        Files.createDirectories(logDir);
+        Path log = logDir.resolve(name + ".log");
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        properties.forEach((key, value) -> command.add("--" + key + "=" + value));
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        return new ServiceProcess(name, process, URI.create("http://localhost:" + port), log);
+    }
+
+    public URI getBaseUrl() {
+        return baseUrl;
+    }
+
+    public void awaitHealthy(HttpClient httpClient, Duration timeout) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve("/actuator/health"))
+                .timeout(HEALTH_POLL_INTERVAL.multipliedBy(4))
+                .build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() - deadline < 0) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with code " + process.exitValue() + ", see " + log);
+            }
+            try {
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200 && response.body().contains("\"UP\"")) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Сервис ещё не принимает соединения
+            }
+            Thread.sleep(HEALTH_POLL_INTERVAL.toMillis());
+        }
+        throw new IllegalStateException(name + " not healthy after " + timeout.toSeconds() + "s, see " + log);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
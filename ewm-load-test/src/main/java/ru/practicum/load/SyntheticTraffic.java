@@ -0,0 +1,136 @@
+package ru.practicum.load;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted mix of the main user journeys. Event popularity is skewed towards
+ * the first seeded events, and participation requests walk through the
+ * (user, event) pairs so that repeated requests and own-event requests,
+ * which the service rejects, stay rare.
+ */
+public class SyntheticTraffic implements TrafficSource {
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String[] SORTS = {"EVENT_DATE", "VIEWS"};
+
+    public enum Scenario {
+        SEARCH("public search"),
+        DETAIL("event detail"),
+        REQUEST("request creation"),
+        STATS("stats");
+
+        private final String endpoint;
+
+        Scenario(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+    }
+
+    private final Map<Scenario, Integer> weights;
+    private final int totalWeight;
+    private final SeedData seed;
+    private final Random random;
+    private final String statsStart;
+    private final String statsEnd;
+    private long requestPair;
+
+    public SyntheticTraffic(Map<Scenario, Integer> weights, SeedData seed, long randomSeed) {
+        this.weights = new EnumMap<>(weights);
+        this.totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("Traffic mix must have a positive weight");
+        }
+        this.seed = seed;
+        this.random = new Random(randomSeed);
+
+        LocalDateTime now = LocalDateTime.now();
+        this.statsStart = encode(DATE_TIME_FORMAT.format(now.minusDays(1)));
+        this.statsEnd = encode(DATE_TIME_FORMAT.format(now.plusDays(1)));
+    }
+
+    /**
+     * Parses a mix like {@code search=50,detail=30,request=10,stats=10}; the
+     * scenarios left out get no traffic.
+     */
+    public static Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid traffic mix entry: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Traffic mix weight cannot be negative: " + part);
+            }
+            weights.put(Scenario.valueOf(pair[0].trim().toUpperCase()), weight);
+        }
+        return weights;
+    }
+
+    @Override
+    public TrafficRequest next() {
+        int pick = random.nextInt(totalWeight);
+        for (Map.Entry<Scenario, Integer> entry : weights.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return create(entry.getKey());
+            }
+        }
+        throw new IllegalStateException("Traffic mix weights changed");
+    }
+
+    private TrafficRequest create(Scenario scenario) {
+        String endpoint = scenario.getEndpoint();
+        return switch (scenario) {
+            case SEARCH -> new TrafficRequest(endpoint, TrafficRequest.Target.MAIN, "GET",
+                    "/events?text=" + encode(DataSeeder.WORDS.get(random.nextInt(DataSeeder.WORDS.size())))
+                            + "&categories=" + seed.categoryIds().get(random.nextInt(seed.categoryIds().size()))
+                            + "&sort=" + SORTS[random.nextInt(SORTS.length)]
+                            + "&from=0&size=10", null);
+            case DETAIL -> new TrafficRequest(endpoint, TrafficRequest.Target.MAIN, "GET",
+                    "/events/" + popularEvent(), null);
+            case REQUEST -> createRequest(endpoint);
+            case STATS -> new TrafficRequest(endpoint, TrafficRequest.Target.STATS, "GET",
+                    "/stats?start=" + statsStart + "&end=" + statsEnd
+                            + "&uris=" + encode("/events/" + popularEvent())
+                            + "&unique=" + random.nextBoolean(), null);
+        };
+    }
+
+    private TrafficRequest createRequest(String endpoint) {
+        int users = seed.userIds().size();
+        int events = seed.eventIds().size();
+        int userIndex;
+        int eventIndex;
+        do {
+            userIndex = (int) (requestPair % users);
+            eventIndex = (int) (requestPair / users % events);
+            requestPair++;
+            // Инициатор не может подать заявку на своё событие
+        } while (users > 1 && eventIndex % users == userIndex);
+
+        return new TrafficRequest(endpoint, TrafficRequest.Target.MAIN, "POST",
+                "/users/" + seed.userIds().get(userIndex) + "/requests?eventId=" + seed.eventIds().get(eventIndex),
+                null);
+    }
+
+    // Куб равномерной величины смещает выбор к первым событиям: четверть событий получает ~60% просмотров
+    private Long popularEvent() {
+        double position = Math.pow(random.nextDouble(), 3);
+        return seed.eventIds().get((int) (position * seed.eventIds().size()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.load;
+
+/**
+ * One HTTP request of the generated load.
+ *
+ * @param endpoint label the request is reported under
+ * @param target   service the request is sent to
+ * @param method   HTTP method
+ * @param path     path with the query string, already URL-encoded
+ * @param body     JSON body, {@code null} for requests without one
+ */
+public record TrafficRequest(String endpoint, Target target, String method, String path, String body) {
+
+    public enum Target {
+        MAIN,
+        STATS
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.load;
+
+/**
+ * Endless sequence of requests to send; called from the single dispatcher
+ * thread of {@link OpenLoadGenerator}, so implementations need no locking.
+ */
+public interface TrafficSource {
+
+    TrafficRequest next();
+}
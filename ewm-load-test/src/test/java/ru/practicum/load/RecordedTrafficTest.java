@@ -0,0 +1,44 @@
+package ru.practicum.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecordedTrafficTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void load_shouldReplayRequestsInLoop(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("traffic.jsonl");
+        Files.writeString(file, """
+                {"endpoint": "event detail", "path": "/events/1"}
+
+                {"target": "stats", "method": "post", "path": "/hit", "body": {"app": "ewm-main-service"}}
+                """);
+
+        RecordedTraffic traffic = RecordedTraffic.load(file, objectMapper);
+
+        assertEquals(new TrafficRequest("event detail", TrafficRequest.Target.MAIN, "GET", "/events/1", null),
+                traffic.next());
+        assertEquals(new TrafficRequest("POST /hit", TrafficRequest.Target.STATS, "POST", "/hit",
+                "{\"app\":\"ewm-main-service\"}"), traffic.next());
+        assertEquals("event detail", traffic.next().endpoint());
+    }
+
+    @Test
+    void parse_shouldNameEndpointByPathWithoutQuery() {
+        TrafficRequest request = RecordedTraffic.parse("{\"path\": \"/events?text=abc&from=0\"}", objectMapper);
+
+        assertEquals("GET /events", request.endpoint());
+        assertNull(request.body());
+        assertThrows(IllegalArgumentException.class, () -> RecordedTraffic.parse("{\"method\": \"GET\"}", objectMapper));
+    }
+}
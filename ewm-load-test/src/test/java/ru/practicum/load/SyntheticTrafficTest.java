@@ -0,0 +1,61 @@
+package ru.practicum.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyntheticTrafficTest {
+    private static final SeedData SEED = new SeedData(List.of(1L, 2L, 3L), List.of(10L), List.of(100L, 101L, 102L));
+
+    @Test
+    void parseMix_shouldReadScenarioWeights() {
+        Map<SyntheticTraffic.Scenario, Integer> mix = SyntheticTraffic.parseMix("search=50, detail=30,stats=0");
+
+        assertEquals(Map.of(
+                SyntheticTraffic.Scenario.SEARCH, 50,
+                SyntheticTraffic.Scenario.DETAIL, 30,
+                SyntheticTraffic.Scenario.STATS, 0), mix);
+        assertThrows(IllegalArgumentException.class, () -> SyntheticTraffic.parseMix("search"));
+        assertThrows(IllegalArgumentException.class, () -> SyntheticTraffic.parseMix("checkout=1"));
+    }
+
+    @Test
+    void next_shouldFollowMixWeights() {
+        SyntheticTraffic traffic = new SyntheticTraffic(SyntheticTraffic.parseMix("search=3,detail=1"), SEED, 1);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            counts.merge(traffic.next().endpoint(), 1, Integer::sum);
+        }
+
+        assertEquals(Set.of("public search", "event detail"), counts.keySet());
+        int searches = counts.get("public search");
+        assertTrue(searches > 7_200 && searches < 7_800, "searches: " + searches);
+    }
+
+    @Test
+    void next_shouldNotRepeatOrSendOwnEventRequests() {
+        SyntheticTraffic traffic = new SyntheticTraffic(SyntheticTraffic.parseMix("request=1"), SEED, 1);
+        Set<String> paths = new HashSet<>();
+        // 3 пользователя x 3 события без собственных: 6 различных заявок
+        for (int i = 0; i < 6; i++) {
+            TrafficRequest request = traffic.next();
+            assertEquals("POST", request.method());
+            assertEquals(TrafficRequest.Target.MAIN, request.target());
+            assertTrue(paths.add(request.path()), "repeated " + request.path());
+        }
+
+        // Инициатор события с индексом i — пользователь с индексом i % 3
+        assertFalse(paths.contains("/users/1/requests?eventId=100"));
+        assertFalse(paths.contains("/users/2/requests?eventId=101"));
+        assertFalse(paths.contains("/users/3/requests?eventId=102"));
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Counts statements, fetched rows and JDBC time into the {@link RequestQueryStats}
+ * of the current request. Connections taken outside a request are returned
+ * as is, so background work pays nothing for the instrumentation.
+ */
+public class QueryStatsDataSource extends DelegatingDataSource {
+
+    public QueryStatsDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return instrument(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return instrument(super.getConnection(username, password));
+    }
+
+    private static Connection instrument(Connection connection) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats == null) {
+            return connection;
+        }
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(proxy, connection, method, args);
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return instrument(method.getReturnType(), statement, stats);
+            }
+            return result;
+        });
+    }
+
+    private static Object instrument(Class<?> type, Statement statement, RequestQueryStats stats) {
+        return proxy(type, statement, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return wrapResultSet(invoke(proxy, statement, method, args), stats);
+            }
+            long start = System.nanoTime();
+            try {
+                return wrapResultSet(invoke(proxy, statement, method, args), stats);
+            } finally {
+                stats.statementExecuted(System.nanoTime() - start);
+            }
+        });
+    }
+
+    private static Object wrapResultSet(Object result, RequestQueryStats stats) {
+        if (!(result instanceof ResultSet resultSet)) {
+            return result;
+        }
+        return proxy(ResultSet.class, resultSet, (proxy, method, args) -> {
+            if (!method.getName().equals("next")) {
+                return invoke(proxy, resultSet, method, args);
+            }
+            // Драйвер может подкачивать строки порциями, поэтому next() тоже время в БД
+            long start = System.nanoTime();
+            Object hasRow = invoke(proxy, resultSet, method, args);
+            if (Boolean.TRUE.equals(hasRow)) {
+                stats.rowFetched(System.nanoTime() - start);
+            } else {
+                stats.fetched(System.nanoTime() - start);
+            }
+            return hasRow;
+        });
+    }
+
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        // Hibernate хранит statement'ы в HashMap, прокси должен совпадать только сам с собой
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(QueryStatsDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.config;
+
+/**
+ * SQL statements, fetched rows and database time of the HTTP request being
+ * handled on the current thread. Work done on other threads (scheduled jobs,
+ * the stats client, streamed response bodies) is not attributed to a request.
+ */
+public final class RequestQueryStats {
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long dbNanos;
+
+    static RequestQueryStats start() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    void statementExecuted(long nanos) {
+        statements++;
+        dbNanos += nanos;
+    }
+
+    void rowFetched(long nanos) {
+        rows++;
+        dbNanos += nanos;
+    }
+
+    void fetched(long nanos) {
+        dbNanos += nanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getDbNanos() {
+        return dbNanos;
+    }
+}
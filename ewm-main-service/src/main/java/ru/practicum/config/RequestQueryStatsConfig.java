@@ -0,0 +1,41 @@
+package ru.practicum.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request SQL statistics: the data source is wrapped to count statements,
+ * rows and database time, and a filter turns them into metrics, debug
+ * headers and budget warnings. Makes N+1 selects visible per endpoint.
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.request-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestQueryStatsConfig {
+
+    @Bean
+    public static BeanPostProcessor queryStatsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof QueryStatsDataSource)) {
+                    return new QueryStatsDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public RequestQueryStatsFilter requestQueryStatsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${db.request-stats.headers:false}") boolean headers,
+            @Value("${db.request-stats.statement-budget:20}") int statementBudget) {
+        return new RequestQueryStatsFilter(meterRegistry, headers, statementBudget);
+    }
+}
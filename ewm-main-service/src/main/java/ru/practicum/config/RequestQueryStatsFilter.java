@@ -0,0 +1,136 @@
+package ru.practicum.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects {@link RequestQueryStats} for every HTTP request, records them
+ * as {@code ewm.request.db.*} meters tagged with the handler's URI pattern and
+ * warns about requests executing more statements than the budget allows.
+ * With headers enabled the counts are also returned as {@code X-DB-*}
+ * headers; they are written with the first byte of the body, so queries
+ * made while the body is being written only show up in metrics and logs.
+ */
+@Slf4j
+public class RequestQueryStatsFilter extends OncePerRequestFilter {
+    static final String STATEMENTS_HEADER = "X-DB-Statements";
+    static final String ROWS_HEADER = "X-DB-Rows";
+    static final String TIME_HEADER = "X-DB-Time-Ms";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean headers;
+    private final int statementBudget;
+
+    public RequestQueryStatsFilter(MeterRegistry meterRegistry, boolean headers, int statementBudget) {
+        this.meterRegistry = meterRegistry;
+        this.headers = headers;
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.start();
+        StatsHeaderResponse statsResponse = headers ? new StatsHeaderResponse(response, stats) : null;
+        try {
+            chain.doFilter(request, statsResponse != null ? statsResponse : response);
+        } finally {
+            RequestQueryStats.clear();
+            if (statsResponse != null) {
+                statsResponse.writeHeaders();
+            }
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestQueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern != null ? pattern.toString() : UNKNOWN_URI);
+
+        DistributionSummary.builder("ewm.request.db.statements").tags(tags).register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("ewm.request.db.rows").tags(tags).register(meterRegistry)
+                .record(stats.getRows());
+        Timer.builder("ewm.request.db.time").tags(tags).register(meterRegistry)
+                .record(stats.getDbNanos(), TimeUnit.NANOSECONDS);
+
+        if (statementBudget > 0 && stats.getStatements() > statementBudget) {
+            log.warn("{} {} executed {} SQL statements over the budget of {} ({} rows, {} ms in the database)",
+                    request.getMethod(), request.getRequestURI(), stats.getStatements(), statementBudget,
+                    stats.getRows(), TimeUnit.NANOSECONDS.toMillis(stats.getDbNanos()));
+        }
+    }
+
+    private static class StatsHeaderResponse extends HttpServletResponseWrapper {
+        private final RequestQueryStats stats;
+        private boolean written;
+
+        StatsHeaderResponse(HttpServletResponse response, RequestQueryStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+            setHeader(ROWS_HEADER, String.valueOf(stats.getRows()));
+            setHeader(TIME_HEADER, String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.getDbNanos())));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
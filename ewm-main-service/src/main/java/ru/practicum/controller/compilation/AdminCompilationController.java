@@ -8,6 +8,7 @@ import ru.practicum.dto.compilation.CompilationDto;
 import ru.practicum.dto.compilation.NewCompilationDto;
 import ru.practicum.dto.compilation.UpdateCompilationRequest;
 import ru.practicum.service.compilation.CompilationService;
+import ru.practicum.service.compilation.PinnedCompilationCache;
 
 @RestController
 @RequestMapping("/admin/compilations")
@@ -15,22 +16,28 @@ import ru.practicum.service.compilation.CompilationService;
 public class AdminCompilationController {
 
     private final CompilationService compilationService;
+    private final PinnedCompilationCache pinnedCompilationCache;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public CompilationDto create(@RequestBody @Valid NewCompilationDto dto) {
-        return compilationService.create(dto);
+        CompilationDto created = compilationService.create(dto);
+        pinnedCompilationCache.invalidate();
+        return created;
     }
 
     @DeleteMapping("/{compId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long compId) {
         compilationService.delete(compId);
+        pinnedCompilationCache.invalidate();
     }
 
     @PatchMapping("/{compId}")
     public CompilationDto update(@PathVariable Long compId, @RequestBody @Valid UpdateCompilationRequest dto) {
-        return compilationService.update(compId, dto);
+        CompilationDto updated = compilationService.update(compId, dto);
+        pinnedCompilationCache.invalidate();
+        return updated;
     }
 }
 
@@ -5,11 +5,14 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.dto.event.EventFullDto;
+import ru.practicum.dto.event.EventSlice;
 import ru.practicum.dto.event.UpdateEventAdminRequest;
+import ru.practicum.model.EventCursor;
 import ru.practicum.model.EventState;
 import ru.practicum.service.event.EventService;
 
@@ -29,14 +32,15 @@ public class AdminEventController {
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     @GetMapping
-    public List<EventFullDto> searchEvents(
+    public ResponseEntity<List<EventFullDto>> searchEvents(
             @RequestParam(required = false) List<Long> users,
             @RequestParam(required = false) List<String> states,
             @RequestParam(required = false) List<Long> categories,
             @RequestParam(required = false) String rangeStart,
             @RequestParam(required = false) String rangeEnd,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(defaultValue = "10") @Positive int size) {
+            @RequestParam(defaultValue = "10") @Positive int size,
+            @RequestParam(required = false) String cursor) {
 
         List<EventState> stateEnums = null;
         if (states != null && !states.isEmpty()) {
@@ -53,7 +57,24 @@ public class AdminEventController {
         List<EventState> filteredStates = (stateEnums == null || stateEnums.isEmpty()) ? null : stateEnums;
         List<Long> filteredCategories = (categories == null || categories.isEmpty()) ? null : categories;
 
-        return eventService.searchEvents(
+        if (cursor != null) {
+            EventSlice<EventFullDto> slice = eventService.searchEventsByCursor(
+                    filteredUsers,
+                    filteredStates,
+                    filteredCategories,
+                    parseDateTime(rangeStart),
+                    parseDateTime(rangeEnd),
+                    cursor,
+                    size
+            );
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (slice.getNextCursor() != null) {
+                response.header(EventCursor.NEXT_CURSOR_HEADER, slice.getNextCursor());
+            }
+            return response.body(slice.getItems());
+        }
+
+        return ResponseEntity.ok(eventService.searchEvents(
                 filteredUsers,
                 filteredStates,
                 filteredCategories,
@@ -61,7 +82,7 @@ public class AdminEventController {
                 parseDateTime(rangeEnd),
                 from,
                 size
-        );
+        ));
     }
 
     private LocalDateTime parseDateTime(String dateTime) {
@@ -1,22 +1,32 @@
 package ru.practicum.controller.event;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.dto.event.EventFullDto;
 import ru.practicum.dto.event.EventShortDto;
+import ru.practicum.dto.event.EventSlice;
 import ru.practicum.dto.event.NewEventDto;
 import ru.practicum.dto.event.UpdateEventUserRequest;
 import ru.practicum.dto.participationRequest.EventRequestStatusUpdateRequest;
 import ru.practicum.dto.participationRequest.EventRequestStatusUpdateResult;
 import ru.practicum.dto.participationRequest.ParticipationRequestDto;
+import ru.practicum.model.EventCursor;
 import ru.practicum.service.event.EventService;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -27,7 +37,10 @@ import java.util.List;
 @Validated
 public class PrivateEventController {
 
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
     private final EventService eventService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -40,10 +53,20 @@ public class PrivateEventController {
     }
 
     @GetMapping
-    public List<EventShortDto> getUserEvents(@PathVariable Long userId,
-                                             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                             @RequestParam(defaultValue = "10") @Positive int size) {
-        return eventService.getUserEvents(userId, from, size);
+    public ResponseEntity<List<EventShortDto>> getUserEvents(@PathVariable Long userId,
+                                                             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                             @RequestParam(defaultValue = "10") @Positive int size,
+                                                             @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(eventService.getUserEvents(userId, from, size));
+        }
+
+        EventSlice<EventShortDto> slice = eventService.getUserEventsByCursor(userId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (slice.getNextCursor() != null) {
+            response.header(EventCursor.NEXT_CURSOR_HEADER, slice.getNextCursor());
+        }
+        return response.body(slice.getItems());
     }
 
     @GetMapping("/{eventId}")
@@ -64,8 +87,36 @@ public class PrivateEventController {
 
     @GetMapping("/{eventId}/requests")
     public List<ParticipationRequestDto> getEventRequests(@PathVariable Long userId,
-                                                          @PathVariable Long eventId) {
-        return eventService.getEventRequests(userId, eventId);
+                                                          @PathVariable Long eventId,
+                                                          @RequestParam(required = false) @PositiveOrZero Integer from,
+                                                          @RequestParam(required = false) @Positive Integer size) {
+        if (from == null && size == null) {
+            return eventService.getEventRequests(userId, eventId);
+        }
+        return eventService.getEventRequests(userId, eventId,
+                from == null ? 0 : from, size == null ? DEFAULT_PAGE_SIZE : size);
+    }
+
+    @GetMapping(value = "/{eventId}/requests/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEventRequests(@PathVariable Long userId,
+                                                                     @PathVariable Long eventId) {
+        eventService.checkEventInitiator(userId, eventId);
+
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            eventService.exportEventRequests(userId, eventId, request -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(request));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @PatchMapping("/{eventId}/requests")
@@ -8,11 +8,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.dto.event.EventFullDto;
 import ru.practicum.dto.event.EventShortDto;
+import ru.practicum.dto.event.EventSlice;
 import ru.practicum.exception.DateTimeValidationException;
+import ru.practicum.model.EventCursor;
 import ru.practicum.model.EventSort;
 import ru.practicum.service.event.EventService;
 
@@ -30,18 +33,19 @@ public class PublicEventController {
     private static final String DATE_TIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
 
     @GetMapping
-    public List<EventShortDto> getAllPublicEvents(@RequestParam(required = false) String text,
-                                                  @RequestParam(required = false) List<Long> categories,
-                                                  @RequestParam(required = false) Boolean paid,
-                                                  @RequestParam(required = false)
-                                                  @DateTimeFormat(pattern = DATE_TIME_FORMAT) LocalDateTime rangeStart,
-                                                  @RequestParam(required = false)
-                                                  @DateTimeFormat(pattern = DATE_TIME_FORMAT) LocalDateTime rangeEnd,
-                                                  @RequestParam(defaultValue = "false") Boolean onlyAvailable,
-                                                  @RequestParam(defaultValue = "EVENT_DATE") String sort,
-                                                  @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                  @RequestParam(defaultValue = "10") @Positive int size,
-                                                  HttpServletRequest request) {
+    public ResponseEntity<List<EventShortDto>> getAllPublicEvents(@RequestParam(required = false) String text,
+                                                                  @RequestParam(required = false) List<Long> categories,
+                                                                  @RequestParam(required = false) Boolean paid,
+                                                                  @RequestParam(required = false)
+                                                                  @DateTimeFormat(pattern = DATE_TIME_FORMAT) LocalDateTime rangeStart,
+                                                                  @RequestParam(required = false)
+                                                                  @DateTimeFormat(pattern = DATE_TIME_FORMAT) LocalDateTime rangeEnd,
+                                                                  @RequestParam(defaultValue = "false") Boolean onlyAvailable,
+                                                                  @RequestParam(defaultValue = "EVENT_DATE") String sort,
+                                                                  @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                                  @RequestParam(defaultValue = "10") @Positive int size,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  HttpServletRequest request) {
         log.info("client ip: {}", request.getRemoteAddr());
         log.info("endpoint path: {}", request.getRequestURI());
 
@@ -53,15 +57,27 @@ public class PublicEventController {
         try {
             sortType = EventSort.valueOf(sort.toUpperCase());
         } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Invalid sort value. Allowed: EVENT_DATE, VIEWS");
+            throw new IllegalArgumentException("Invalid sort value. Allowed: EVENT_DATE, VIEWS, RELEVANCE");
+        }
+
+        if (cursor != null) {
+            EventSlice<EventShortDto> slice = eventService.getPublicEventsByCursor(
+                    text, categories, paid, rangeStart, rangeEnd,
+                    onlyAvailable, sortType, cursor, size, request
+            );
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (slice.getNextCursor() != null) {
+                response.header(EventCursor.NEXT_CURSOR_HEADER, slice.getNextCursor());
+            }
+            return response.body(slice.getItems());
         }
 
         Pageable pageable = PageRequest.of(from / size, size);
 
-        return eventService.getPublicEventsWithFilters(
+        return ResponseEntity.ok(eventService.getPublicEventsWithFilters(
                 text, categories, paid, rangeStart, rangeEnd,
                 onlyAvailable, sortType, pageable, request
-        );
+        ));
     }
 
     @GetMapping("/{id}")
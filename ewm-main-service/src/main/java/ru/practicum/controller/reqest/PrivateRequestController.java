@@ -1,6 +1,8 @@
 package ru.practicum.controller.reqest;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,11 +19,20 @@ import java.util.List;
 @RequestMapping("/users/{userId}/requests")
 @Validated
 public class PrivateRequestController {
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
     private final RequestService requestService;
 
     @GetMapping
-    public ResponseEntity<List<ParticipationRequestDto>> getUserRequests(@PathVariable Long userId) {
-        return ResponseEntity.ok(requestService.getUserRequests(userId));
+    public ResponseEntity<List<ParticipationRequestDto>> getUserRequests(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @PositiveOrZero Integer from,
+            @RequestParam(required = false) @Positive Integer size) {
+        if (from == null && size == null) {
+            return ResponseEntity.ok(requestService.getUserRequests(userId));
+        }
+        return ResponseEntity.ok(requestService.getUserRequests(userId,
+                from == null ? 0 : from, size == null ? DEFAULT_PAGE_SIZE : size));
     }
 
     @PostMapping
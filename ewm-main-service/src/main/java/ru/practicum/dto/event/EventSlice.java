@@ -0,0 +1,17 @@
+package ru.practicum.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated event listing; {@code nextCursor} is
+ * {@code null} on the last page.
+ */
+@Getter
+@AllArgsConstructor
+public class EventSlice<T> {
+    private final List<T> items;
+    private final String nextCursor;
+}
@@ -7,6 +7,10 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "events")
+@NamedEntityGraph(name = Event.WITH_CATEGORY_AND_INITIATOR, attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("initiator")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -14,6 +18,8 @@ import java.time.LocalDateTime;
 @Builder
 @ToString(exclude = {"category", "initiator"})
 public class Event {
+    public static final String WITH_CATEGORY_AND_INITIATOR = "Event.withCategoryAndInitiator";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -55,6 +61,23 @@ public class Event {
     @Column(nullable = false)
     private Boolean requestModeration = true;
 
+    /**
+     * Changed only by the conditional UPDATE in
+     * {@link ru.practicum.repository.event.EventRepositoryCustom#reserveSeats}, so saving
+     * an edited event never writes back a count read before a concurrent reservation.
+     */
+    @Builder.Default
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Long confirmedRequests = 0L;
+
+    /**
+     * Views as of the last sync with the stats server, used for VIEWS sorting.
+     * Written only by {@link ru.practicum.service.event.EventViewsSynchronizer}.
+     */
+    @Builder.Default
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Long views = 0L;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private EventState state;
@@ -0,0 +1,65 @@
+package ru.practicum.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.exception.IllegalArgumentException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position after the last event of a page for keyset pagination, keyed on
+ * {@code (event_date, id)} or {@code (views, id)}. Clients only see the
+ * opaque token produced by {@link #encode()}.
+ */
+@Getter
+@AllArgsConstructor
+public class EventCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "|";
+
+    private final EventSort sort;
+    private final LocalDateTime eventDate;
+    private final Long views;
+    private final Long id;
+
+    public static EventCursor after(Event event, EventSort sort) {
+        return new EventCursor(sort, event.getEventDate(), event.getViews(), event.getId());
+    }
+
+    /**
+     * Returns {@code null} for a blank token, which requests the first page.
+     */
+    public static EventCursor decode(String token, EventSort expectedSort) {
+        if (expectedSort == EventSort.RELEVANCE) {
+            throw new IllegalArgumentException("Cursor pagination is not supported for sort RELEVANCE");
+        }
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR);
+            EventSort sort = EventSort.valueOf(parts[0]);
+            if (parts.length != 3 || sort != expectedSort) {
+                throw new IllegalArgumentException("Cursor does not match sort " + expectedSort);
+            }
+            long id = Long.parseLong(parts[2]);
+            return sort == EventSort.VIEWS
+                    ? new EventCursor(sort, null, Long.parseLong(parts[1]), id)
+                    : new EventCursor(sort, LocalDateTime.parse(parts[1]), null, id);
+        } catch (java.lang.IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String key = sort == EventSort.VIEWS ? String.valueOf(views) : eventDate.toString();
+        String raw = sort.name() + SEPARATOR + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
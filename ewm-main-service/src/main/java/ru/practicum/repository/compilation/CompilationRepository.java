@@ -1,7 +1,26 @@
 package ru.practicum.repository.compilation;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.model.Compilation;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 public interface CompilationRepository extends JpaRepository<Compilation, Long> {
+    @Query("SELECT c.id FROM Compilation c")
+    List<Long> findPageIds(Pageable pageable);
+
+    @Query("SELECT c.id FROM Compilation c WHERE c.pinned = :pinned")
+    List<Long> findPageIdsByPinned(@Param("pinned") boolean pinned, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"events", "events.category", "events.initiator"})
+    List<Compilation> findAllByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"events", "events.category", "events.initiator"})
+    Optional<Compilation> findWithEventsById(Long id);
 }
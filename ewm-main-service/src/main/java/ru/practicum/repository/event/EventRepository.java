@@ -1,6 +1,7 @@
 package ru.practicum.repository.event;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,14 +16,28 @@ import java.util.Optional;
 public interface EventRepository extends JpaRepository<Event, Long>, EventRepositoryCustom {
     boolean existsByCategoryId(Long categoryId);
 
+    @EntityGraph(Event.WITH_CATEGORY_AND_INITIATOR)
     List<Event> findAllByInitiatorId(Long initiatorId, Pageable pageable);
 
+    @EntityGraph(Event.WITH_CATEGORY_AND_INITIATOR)
+    @Query("SELECT e FROM Event e WHERE e.initiator.id = :initiatorId " +
+            "AND (e.eventDate > :afterDate OR (e.eventDate = :afterDate AND e.id > :afterId)) " +
+            "ORDER BY e.eventDate, e.id")
+    List<Event> findAllByInitiatorIdAfter(@Param("initiatorId") Long initiatorId,
+                                          @Param("afterDate") LocalDateTime afterDate,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
     Optional<Event> findByIdAndInitiatorId(Long id, Long initiatorId);
 
     boolean existsByIdAndInitiatorId(Long eventId, Long initiatorId);
 
     Optional<Event> findByIdAndState(Long id, EventState state);
 
+    @Query("SELECT e.id FROM Event e WHERE e.state = 'PUBLISHED' AND e.id > :afterId ORDER BY e.id")
+    List<Long> findPublishedIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(Event.WITH_CATEGORY_AND_INITIATOR)
     @Query("SELECT e FROM Event e " +
             "WHERE (:users IS NULL OR e.initiator.id IN :users) " +
             "AND (:states IS NULL OR e.state IN :states) " +
@@ -39,15 +54,36 @@ public interface EventRepository extends JpaRepository<Event, Long>, EventReposi
     );
 
 
+    @EntityGraph(Event.WITH_CATEGORY_AND_INITIATOR)
+    @Query("SELECT e FROM Event e " +
+            "WHERE (:users IS NULL OR e.initiator.id IN :users) " +
+            "AND (:states IS NULL OR e.state IN :states) " +
+            "AND (:categories IS NULL OR e.category.id IN :categories) " +
+            "AND e.eventDate >= COALESCE(:rangeStart, e.eventDate) " +
+            "AND e.eventDate <= COALESCE(:rangeEnd, e.eventDate) " +
+            "AND (e.eventDate < :beforeDate OR (e.eventDate = :beforeDate AND e.id < :beforeId)) " +
+            "ORDER BY e.eventDate DESC, e.id DESC")
+    List<Event> findEventsByAdminParamsBefore(
+            @Param("users") List<Long> users,
+            @Param("states") List<EventState> states,
+            @Param("categories") List<Long> categories,
+            @Param("rangeStart") LocalDateTime rangeStart,
+            @Param("rangeEnd") LocalDateTime rangeEnd,
+            @Param("beforeDate") LocalDateTime beforeDate,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable
+    );
+
+    @EntityGraph(Event.WITH_CATEGORY_AND_INITIATOR)
     @Query("SELECT e FROM Event e " +
-            "WHERE (:text IS NULL OR lower(e.annotation) LIKE lower(concat('%', :text, '%')) " +
-            "   OR lower(e.description) LIKE lower(concat('%', :text, '%'))) " +
+            "WHERE (:text IS NULL OR fts_match(e.id, :text)) " +
             "AND (:categories IS NULL OR e.category.id IN :categories) " +
             "AND (:paid IS NULL OR e.paid = :paid) " +
             "AND (coalesce(:rangeStart, null) IS NULL OR e.eventDate >= :rangeStart) " +
             "AND (coalesce(:rangeEnd, null) IS NULL OR e.eventDate <= :rangeEnd) " +
             "AND e.state = 'PUBLISHED' " +
-            "AND (:onlyAvailable IS NULL OR :onlyAvailable = true)")
+            "AND (:onlyAvailable IS NULL OR :onlyAvailable = false " +
+            "   OR e.participantLimit = 0 OR e.confirmedRequests < e.participantLimit)")
     List<Event> findPublicEvents(String text,
                                  List<Long> categories,
                                  Boolean paid,
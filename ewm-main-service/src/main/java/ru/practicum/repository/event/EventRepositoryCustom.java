@@ -2,10 +2,12 @@ package ru.practicum.repository.event;
 
 import org.springframework.data.domain.Pageable;
 import ru.practicum.model.Event;
+import ru.practicum.model.EventCursor;
 import ru.practicum.model.EventSort;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public interface EventRepositoryCustom {
     List<Event> findPublicEventsWithFilters(
@@ -18,4 +20,28 @@ public interface EventRepositoryCustom {
             EventSort sort,
             Pageable pageable
     );
+
+    /**
+     * Keyset variant of {@link #findPublicEventsWithFilters}: returns up to {@code size}
+     * events after {@code cursor}, or the first page when the cursor is {@code null}.
+     */
+    List<Event> findPublicEventsAfter(
+            String text,
+            List<Long> categories,
+            Boolean paid,
+            LocalDateTime rangeStart,
+            LocalDateTime rangeEnd,
+            Boolean onlyAvailable,
+            EventSort sort,
+            EventCursor cursor,
+            int size
+    );
+
+    void updateViews(Map<Long, Long> views);
+
+    /**
+     * Atomically takes up to {@code requested} seats of the event's participant
+     * limit and returns how many were granted (all of them for unlimited events).
+     */
+    int reserveSeats(Long eventId, int requested);
 }
@@ -0,0 +1,191 @@
+package ru.practicum.repository.event;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.model.Event;
+import ru.practicum.model.EventCursor;
+import ru.practicum.model.EventSort;
+import ru.practicum.model.EventState;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class EventRepositoryImpl implements EventRepositoryCustom {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String FETCH_GRAPH_HINT = "jakarta.persistence.fetchgraph";
+    private static final String UPDATE_VIEWS_SQL =
+            "UPDATE events SET views = ? WHERE id = ? AND views <> ?";
+    private static final String RESERVE_SEATS_SQL =
+            "UPDATE events SET confirmed_requests = confirmed_requests + ? " +
+            "WHERE id = ? AND (participant_limit = 0 OR confirmed_requests + ? <= participant_limit)";
+    private static final String FREE_SEATS_SQL =
+            "SELECT CASE WHEN participant_limit = 0 THEN ? ELSE participant_limit - confirmed_requests END " +
+            "FROM events WHERE id = ?";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Event> findPublicEventsWithFilters(
+            String text,
+            List<Long> categories,
+            Boolean paid,
+            LocalDateTime rangeStart,
+            LocalDateTime rangeEnd,
+            Boolean onlyAvailable,
+            EventSort sort,
+            Pageable pageable
+    ) {
+        TypedQuery<Event> query = createPublicEventsQuery(
+                text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, null);
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+
+        return query.getResultList();
+    }
+
+    @Override
+    public List<Event> findPublicEventsAfter(
+            String text,
+            List<Long> categories,
+            Boolean paid,
+            LocalDateTime rangeStart,
+            LocalDateTime rangeEnd,
+            Boolean onlyAvailable,
+            EventSort sort,
+            EventCursor cursor,
+            int size
+    ) {
+        TypedQuery<Event> query = createPublicEventsQuery(
+                text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, cursor);
+        query.setMaxResults(size);
+
+        return query.getResultList();
+    }
+
+    private TypedQuery<Event> createPublicEventsQuery(
+            String text,
+            List<Long> categories,
+            Boolean paid,
+            LocalDateTime rangeStart,
+            LocalDateTime rangeEnd,
+            Boolean onlyAvailable,
+            EventSort sort,
+            EventCursor cursor
+    ) {
+        if (rangeStart != null && rangeEnd != null && rangeStart.isAfter(rangeEnd)) {
+            throw new IllegalArgumentException("Дата начала диапазона не может быть позже даты окончания");
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Event> cq = cb.createQuery(Event.class);
+        Root<Event> root = cq.from(Event.class);
+        List<Predicate> predicates = new ArrayList<>();
+
+        predicates.add(cb.equal(root.get("state"), EventState.PUBLISHED));
+
+        boolean hasText = text != null && !text.isBlank();
+        ParameterExpression<String> textParam = cb.parameter(String.class, "text");
+        if (hasText) {
+            predicates.add(cb.isTrue(cb.function(
+                    EventSearchFunctions.MATCH, Boolean.class, root.get("id"), textParam)));
+        }
+
+        if (categories != null && !categories.isEmpty()) {
+            predicates.add(root.get("category").get("id").in(categories));
+        }
+
+        if (paid != null) {
+            predicates.add(cb.equal(root.get("paid"), paid));
+        }
+
+        if (rangeStart != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("eventDate"), rangeStart));
+        }
+
+        if (rangeEnd != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("eventDate"), rangeEnd));
+        }
+
+        if (onlyAvailable != null && onlyAvailable) {
+            predicates.add(cb.or(
+                    cb.equal(root.get("participantLimit"), 0),
+                    cb.lt(root.get("confirmedRequests"), root.get("participantLimit"))));
+        }
+
+        // Keyset: строки строго после последней строки предыдущей страницы в порядке сортировки
+        if (cursor != null && sort == EventSort.VIEWS) {
+            predicates.add(cb.or(
+                    cb.lt(root.get("views"), cursor.getViews()),
+                    cb.and(cb.equal(root.get("views"), cursor.getViews()),
+                            cb.gt(root.get("id"), cursor.getId()))));
+        } else if (cursor != null) {
+            predicates.add(cb.or(
+                    cb.greaterThan(root.get("eventDate"), cursor.getEventDate()),
+                    cb.and(cb.equal(root.get("eventDate"), cursor.getEventDate()),
+                            cb.gt(root.get("id"), cursor.getId()))));
+        }
+
+        cq.where(cb.and(predicates.toArray(new Predicate[0])));
+
+        if (sort == EventSort.EVENT_DATE) {
+            cq.orderBy(cb.asc(root.get("eventDate")), cb.asc(root.get("id")));
+        } else if (sort == EventSort.VIEWS) {
+            cq.orderBy(cb.desc(root.get("views")), cb.asc(root.get("id")));
+        } else if (sort == EventSort.RELEVANCE) {
+            if (hasText) {
+                cq.orderBy(cb.desc(cb.function(
+                        EventSearchFunctions.RANK, Double.class, root.get("id"), textParam)),
+                        cb.asc(root.get("id")));
+            } else {
+                cq.orderBy(cb.asc(root.get("eventDate")));
+            }
+        }
+
+        TypedQuery<Event> query = entityManager.createQuery(cq)
+                .setHint(FETCH_GRAPH_HINT, entityManager.getEntityGraph(Event.WITH_CATEGORY_AND_INITIATOR));
+        if (hasText) {
+            query.setParameter(textParam, text);
+        }
+
+        return query;
+    }
+
+    @Override
+    public void updateViews(Map<Long, Long> views) {
+        jdbcTemplate.batchUpdate(UPDATE_VIEWS_SQL, views.entrySet(), BATCH_SIZE, (ps, entry) -> {
+            ps.setLong(1, entry.getValue());
+            ps.setLong(2, entry.getKey());
+            ps.setLong(3, entry.getValue());
+        });
+    }
+
+    @Override
+    public int reserveSeats(Long eventId, int requested) {
+        int count = requested;
+        while (count > 0) {
+            // Условие проверяется под блокировкой строки, поэтому лимит не превышается при конкурентных вызовах
+            if (jdbcTemplate.update(RESERVE_SEATS_SQL, count, eventId, count) > 0) {
+                return count;
+            }
+            // Мест меньше, чем запрошено: места только занимаются, поэтому count строго убывает
+            Long free = jdbcTemplate.queryForObject(FREE_SEATS_SQL, Long.class, count, eventId);
+            count = (int) Math.min(count, free == null ? 0 : free);
+        }
+        return 0;
+    }
+}
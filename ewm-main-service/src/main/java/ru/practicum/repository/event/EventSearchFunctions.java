@@ -0,0 +1,90 @@
+package ru.practicum.repository.event;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.query.ReturnableType;
+import org.hibernate.query.sqm.function.AbstractSqmSelfRenderingFunctionDescriptor;
+import org.hibernate.query.sqm.produce.function.StandardArgumentsValidators;
+import org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.spi.SqlAppender;
+import org.hibernate.sql.ast.tree.SqlAstNode;
+import org.hibernate.sql.ast.tree.expression.ColumnReference;
+import org.hibernate.sql.ast.tree.expression.Expression;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.List;
+
+/**
+ * Full-text search functions over {@code events.search_vector}, called as
+ * {@code fts_match(e.id, :text)} and {@code fts_rank(e.id, :text)}. The
+ * column is not mapped on {@link ru.practicum.model.Event}, so loading events
+ * never selects it: the functions render it next to the table alias of the
+ * event id they are given.
+ * On PostgreSQL the column is a {@code tsvector} with a GIN index; on other
+ * databases (H2 in tests) it is the lower-cased annotation and description
+ * and matching falls back to a substring search.
+ */
+public class EventSearchFunctions implements FunctionContributor {
+    public static final String MATCH = "fts_match";
+    public static final String RANK = "fts_rank";
+
+    private static final String SEARCH_VECTOR_COLUMN = "search_vector";
+    private static final String TS_CONFIG = "'russian'";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Double> doubleType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE);
+
+        // {vector} - колонка search_vector, ?2 - искомый текст
+        if (functionContributions.getDialect() instanceof PostgreSQLDialect) {
+            register(functionContributions, new SearchVectorFunction(MATCH, booleanType,
+                    "({vector} @@ plainto_tsquery(" + TS_CONFIG + ", ?2))"));
+            register(functionContributions, new SearchVectorFunction(RANK, doubleType,
+                    "ts_rank({vector}, plainto_tsquery(" + TS_CONFIG + ", ?2))"));
+        } else {
+            register(functionContributions, new SearchVectorFunction(MATCH, booleanType,
+                    "({vector} LIKE ('%' || LOWER(?2) || '%'))"));
+            register(functionContributions, new SearchVectorFunction(RANK, doubleType,
+                    "(1.0 / NULLIF(LOCATE(LOWER(?2), {vector}), 0))"));
+        }
+    }
+
+    private static void register(FunctionContributions functionContributions, SearchVectorFunction function) {
+        functionContributions.getFunctionRegistry().register(function.getName(), function);
+    }
+
+    private static class SearchVectorFunction extends AbstractSqmSelfRenderingFunctionDescriptor {
+        private final String template;
+
+        SearchVectorFunction(String name, BasicType<?> type, String template) {
+            super(name, StandardArgumentsValidators.exactly(2),
+                    StandardFunctionReturnTypeResolvers.invariant(type), null);
+            this.template = template;
+        }
+
+        @Override
+        public void render(SqlAppender sqlAppender,
+                           List<? extends SqlAstNode> arguments,
+                           ReturnableType<?> returnType,
+                           SqlAstTranslator<?> walker) {
+            ColumnReference id = arguments.get(0) instanceof Expression expression
+                    ? expression.getColumnReference()
+                    : null;
+            if (id == null || id.getQualifier() == null) {
+                throw new IllegalArgumentException(getName() + " expects an event id path as its first argument");
+            }
+
+            String sql = template.replace("{vector}", id.getQualifier() + "." + SEARCH_VECTOR_COLUMN);
+            int textAt = sql.indexOf("?2");
+            sqlAppender.appendSql(sql.substring(0, textAt));
+            arguments.get(1).accept(walker);
+            sqlAppender.appendSql(sql.substring(textAt + 2));
+        }
+    }
+}
@@ -1,26 +1,50 @@
 package ru.practicum.repository.request;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.dto.participationRequest.ConfirmedRequestCount;
 import ru.practicum.model.ParticipationRequest;
 import ru.practicum.model.RequestStatus;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface RequestRepository extends JpaRepository<ParticipationRequest, Long> {
 
     List<ParticipationRequest> findAllByEventId(Long eventId);
 
+    List<ParticipationRequest> findAllByEventId(Long eventId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT r FROM ParticipationRequest r WHERE r.event.id = :eventId ORDER BY r.id")
+    Stream<ParticipationRequest> streamAllByEventId(@Param("eventId") Long eventId);
+
     List<ParticipationRequest> findAllByRequesterId(Long userId);
 
+    List<ParticipationRequest> findAllByRequesterId(Long userId, Pageable pageable);
+
     boolean existsByRequesterIdAndEventId(Long requesterId, Long eventId);
 
     long countByEventIdAndStatus(Long eventId, RequestStatus status);
 
     List<ParticipationRequest> findAllByIdInAndEventId(List<Long> ids, Long eventId);
 
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ParticipationRequest r SET r.status = :status " +
+            "WHERE r.id IN :ids AND r.status = ru.practicum.model.RequestStatus.PENDING")
+    int updatePendingStatuses(@Param("ids") List<Long> ids, @Param("status") RequestStatus status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ParticipationRequest r SET r.status = ru.practicum.model.RequestStatus.REJECTED " +
+            "WHERE r.event.id = :eventId AND r.status = ru.practicum.model.RequestStatus.PENDING")
+    int rejectPendingByEventId(@Param("eventId") Long eventId);
+
     @Query("SELECT new ru.practicum.dto.participationRequest.ConfirmedRequestCount(r.event.id, COUNT(r)) " +
             "FROM ParticipationRequest r " +
             "WHERE r.event.id IN :eventIds AND r.status = 'CONFIRMED' " +
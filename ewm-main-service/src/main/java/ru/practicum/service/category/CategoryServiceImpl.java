@@ -1,5 +1,6 @@
 package ru.practicum.service.category;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -20,6 +21,7 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed("ewm.service")
 public class CategoryServiceImpl implements CategoryService {
     private final EventRepository eventRepository;
     private final CategoryRepository categoryRepository;
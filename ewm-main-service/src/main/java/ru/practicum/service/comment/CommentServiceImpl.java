@@ -1,5 +1,6 @@
 package ru.practicum.service.comment;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -23,6 +24,7 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed("ewm.service")
 public class CommentServiceImpl implements CommentService {
     private static final int REPORT_THRESHOLD = 10;
 
@@ -1,8 +1,12 @@
 package ru.practicum.service.compilation;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.dto.compilation.CompilationDto;
 import ru.practicum.dto.compilation.NewCompilationDto;
 import ru.practicum.dto.compilation.UpdateCompilationRequest;
@@ -14,21 +18,34 @@ import ru.practicum.model.Compilation;
 import ru.practicum.model.Event;
 import ru.practicum.repository.compilation.CompilationRepository;
 import ru.practicum.repository.event.EventRepository;
+import ru.practicum.service.event.ViewCountCache;
+import ru.practicum.service.event.ViewCountLoader;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+@Timed("ewm.service")
 public class CompilationServiceImpl implements CompilationService {
 
     private final CompilationRepository compilationRepository;
     private final EventRepository eventRepository;
     private final CompilationMapper compilationMapper;
     private final EventMapper eventMapper;
+    private final ViewCountLoader viewCountLoader;
+    private final ViewCountCache viewCountCache;
+    private final PinnedCompilationCache pinnedCompilationCache;
 
     @Override
+    @Transactional
     public CompilationDto create(NewCompilationDto dto) {
         Set<Event> events = dto.getEvents() != null
                 ? new java.util.HashSet<>(eventRepository.findAllById(dto.getEvents()))
@@ -41,20 +58,17 @@ public class CompilationServiceImpl implements CompilationService {
                 .build();
 
         Compilation saved = compilationRepository.save(compilation);
-
-        List<EventShortDto> eventDtos = saved.getEvents().stream()
-                .map(event -> eventMapper.toEventShortDto(event, 0L, 0L))
-                .collect(Collectors.toList());
-
-        return compilationMapper.toCompilationDto(saved, eventDtos);
+        return toCompilationDto(saved, getViews(saved.getEvents()));
     }
 
     @Override
+    @Transactional
     public void delete(Long compId) {
         compilationRepository.deleteById(compId);
     }
 
     @Override
+    @Transactional
     public CompilationDto update(Long compId, UpdateCompilationRequest dto) {
         Compilation compilation = compilationRepository.findById(compId)
                 .orElseThrow(() -> new NotFoundException("Compilation not found"));
@@ -73,39 +87,66 @@ public class CompilationServiceImpl implements CompilationService {
         }
 
         Compilation updated = compilationRepository.save(compilation);
-
-        List<EventShortDto> eventDtos = updated.getEvents().stream()
-                .map(event -> eventMapper.toEventShortDto(event, 0L, 0L))
-                .collect(Collectors.toList());
-
-        return compilationMapper.toCompilationDto(updated, eventDtos);
+        return toCompilationDto(updated, getViews(updated.getEvents()));
     }
 
     @Override
     public List<CompilationDto> findAll(Boolean pinned, int from, int size) {
-        PageRequest page = PageRequest.of(from / size, size);
-        List<Compilation> compilations = compilationRepository.findAll(page).getContent();
+        if (Boolean.TRUE.equals(pinned)) {
+            return pinnedCompilationCache.get(from, size, () -> findPage(true, from, size));
+        }
+        return findPage(pinned, from, size);
+    }
+
+    private List<CompilationDto> findPage(Boolean pinned, int from, int size) {
+        PageRequest page = PageRequest.of(from / size, size, Sort.by("id"));
+        List<Long> ids = pinned == null
+                ? compilationRepository.findPageIds(page)
+                : compilationRepository.findPageIdsByPinned(pinned, page);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Compilation> compilations = compilationRepository.findAllByIdIn(ids).stream()
+                .sorted(Comparator.comparing(Compilation::getId))
+                .collect(Collectors.toList());
+        Map<Long, Long> views = getViews(compilations.stream()
+                .flatMap(compilation -> compilation.getEvents().stream())
+                .collect(Collectors.toList()));
 
         return compilations.stream()
-                .filter(c -> pinned == null || c.getPinned().equals(pinned))
-                .map(compilation -> {
-                    List<EventShortDto> eventDtos = compilation.getEvents().stream()
-                            .map(event -> eventMapper.toEventShortDto(event, 0L, 0L))
-                            .collect(Collectors.toList());
-                    return compilationMapper.toCompilationDto(compilation, eventDtos);
-                })
+                .map(compilation -> toCompilationDto(compilation, views))
                 .collect(Collectors.toList());
     }
 
     @Override
     public CompilationDto findById(Long compId) {
-        Compilation compilation = compilationRepository.findById(compId)
+        Compilation compilation = compilationRepository.findWithEventsById(compId)
                 .orElseThrow(() -> new NotFoundException("Compilation not found"));
+        return toCompilationDto(compilation, getViews(compilation.getEvents()));
+    }
 
+    private CompilationDto toCompilationDto(Compilation compilation, Map<Long, Long> views) {
         List<EventShortDto> eventDtos = compilation.getEvents().stream()
-                .map(event -> eventMapper.toEventShortDto(event, 0L, 0L))
+                .map(event -> eventMapper.toEventShortDto(
+                        event,
+                        event.getConfirmedRequests(),
+                        views.getOrDefault(event.getId(), 0L)))
                 .collect(Collectors.toList());
-
         return compilationMapper.toCompilationDto(compilation, eventDtos);
     }
+
+    private Map<Long, Long> getViews(Collection<Event> events) {
+        if (events.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        try {
+            return viewCountCache.getAll(
+                    events.stream().map(Event::getId).distinct().collect(Collectors.toList()),
+                    viewCountLoader::loadAll);
+        } catch (Exception e) {
+            log.error("Error retrieving view stats: {}", e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package ru.practicum.service.compilation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.dto.compilation.CompilationDto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of the pinned compilation pages shown on the homepage.
+ * Admin writes call {@link #invalidate()} once committed; the time to live
+ * bounds how stale embedded event data (views, confirmed requests) can get.
+ */
+@Component
+public class PinnedCompilationCache {
+    private static final String CACHE_NAME = "pinnedCompilations";
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<PageKey, Entry> entries;
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public PinnedCompilationCache(@Value("${compilations.pinned.cache.max-size:16}") int maxSize,
+                                  @Value("${compilations.pinned.cache.ttl-ms:30000}") long ttlMs,
+                                  MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMs * 1_000_000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PageKey, Entry> eldest) {
+                return size() > PinnedCompilationCache.this.maxSize;
+            }
+        };
+
+        this.hits = cacheCounter(meterRegistry, "hit");
+        this.misses = cacheCounter(meterRegistry, "miss");
+    }
+
+    public List<CompilationDto> get(int from, int size, Supplier<List<CompilationDto>> loader) {
+        PageKey key = new PageKey(from, size);
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() - System.nanoTime() > 0) {
+                hits.increment();
+                return entry.compilations();
+            }
+            misses.increment();
+            loadGeneration = generation;
+        }
+
+        List<CompilationDto> compilations = List.copyOf(loader.get());
+        synchronized (this) {
+            // Страница, загруженная до инвалидации, может содержать устаревшие данные
+            if (loadGeneration == generation) {
+                entries.put(key, new Entry(compilations, System.nanoTime() + ttlNanos));
+            }
+        }
+        return compilations;
+    }
+
+    public synchronized void invalidate() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.gets")
+                .tag("cache", CACHE_NAME)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record PageKey(int from, int size) {
+    }
+
+    private record Entry(List<CompilationDto> compilations, long expiresAt) {
+    }
+}
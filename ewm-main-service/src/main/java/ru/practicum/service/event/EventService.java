@@ -12,12 +12,15 @@ import ru.practicum.model.EventState;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface EventService {
     EventFullDto createEvent(Long userId, NewEventDto newEventDto);
 
     List<EventShortDto> getUserEvents(Long userId, int from, int size);
 
+    EventSlice<EventShortDto> getUserEventsByCursor(Long userId, String cursor, int size);
+
     EventFullDto getUserEventById(Long userId, Long eventId);
 
     EventFullDto updateEventByUser(Long userId, Long eventId, UpdateEventUserRequest updateRequest);
@@ -28,6 +31,10 @@ public interface EventService {
                                     List<Long> categories, LocalDateTime rangeStart,
                                     LocalDateTime rangeEnd, int from, int size);
 
+    EventSlice<EventFullDto> searchEventsByCursor(List<Long> users, List<EventState> states,
+                                                  List<Long> categories, LocalDateTime rangeStart,
+                                                  LocalDateTime rangeEnd, String cursor, int size);
+
     EventFullDto updateEventByAdmin(Long eventId, UpdateEventAdminRequest updateRequest);
 
     // --- PUBLIC API ---
@@ -40,6 +47,16 @@ public interface EventService {
 
     List<ParticipationRequestDto> getEventRequests(Long userId, Long eventId);
 
+    List<ParticipationRequestDto> getEventRequests(Long userId, Long eventId, int from, int size);
+
+    void checkEventInitiator(Long userId, Long eventId);
+
+    /**
+     * Passes every participation request of the event to {@code consumer} in id order,
+     * reading them through a database cursor instead of loading the whole list.
+     */
+    void exportEventRequests(Long userId, Long eventId, Consumer<ParticipationRequestDto> consumer);
+
     EventRequestStatusUpdateResult updateRequestStatuses(Long userId, Long eventId, EventRequestStatusUpdateRequest updateRequest);
 
     List<EventShortDto> getPublicEventsWithFilters(
@@ -54,5 +71,18 @@ public interface EventService {
             HttpServletRequest request
     );
 
+    EventSlice<EventShortDto> getPublicEventsByCursor(
+            String text,
+            List<Long> categories,
+            Boolean paid,
+            LocalDateTime rangeStart,
+            LocalDateTime rangeEnd,
+            Boolean onlyAvailable,
+            EventSort sort,
+            String cursor,
+            int size,
+            HttpServletRequest request
+    );
+
 
 }
@@ -1,5 +1,7 @@
 package ru.practicum.service.event;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,9 +11,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.EndpointHit;
-import ru.practicum.ViewStats;
 import ru.practicum.dto.event.*;
-import ru.practicum.dto.participationRequest.ConfirmedRequestCount;
 import ru.practicum.dto.participationRequest.EventRequestStatusUpdateRequest;
 import ru.practicum.dto.participationRequest.EventRequestStatusUpdateResult;
 import ru.practicum.dto.participationRequest.ParticipationRequestDto;
@@ -30,20 +30,28 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
+@Timed("ewm.service")
 public class EventServiceImpl implements EventService {
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final RequestRepository requestRepository;
     private final StatsClient statsClient;
+    private final ViewCountLoader viewCountLoader;
+    private final ViewCountCache viewCountCache;
+    private final EventViewsSynchronizer eventViewsSynchronizer;
     private final EventMapper eventMapper;
     private final RequestMapper requestMapper;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
@@ -69,22 +77,40 @@ public class EventServiceImpl implements EventService {
         }
 
         List<Event> events = eventRepository.findAllByInitiatorId(userId, PageRequest.of(from / size, size));
-        Map<Long, Long> confirmedRequests = getConfirmedRequests(events);
         Map<Long, Long> views = getViews(events);
 
         return events.stream()
                 .map(event -> eventMapper.toEventShortDto(
                         event,
-                        confirmedRequests.getOrDefault(event.getId(), 0L),
+                        event.getConfirmedRequests(),
                         views.getOrDefault(event.getId(), 0L)))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public EventSlice<EventShortDto> getUserEventsByCursor(Long userId, String cursor, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User not found");
+        }
+
+        EventCursor after = EventCursor.decode(cursor, EventSort.EVENT_DATE);
+        List<Event> events = after == null
+                ? eventRepository.findAllByInitiatorId(userId, PageRequest.of(0, size, Sort.by("eventDate", "id")))
+                : eventRepository.findAllByInitiatorIdAfter(userId, after.getEventDate(), after.getId(),
+                PageRequest.ofSize(size));
+        Map<Long, Long> views = getViews(events);
+
+        return toSlice(events, EventSort.EVENT_DATE, size, event -> eventMapper.toEventShortDto(
+                event,
+                event.getConfirmedRequests(),
+                views.getOrDefault(event.getId(), 0L)));
+    }
+
     @Override
     public EventFullDto getUserEventById(Long userId, Long eventId) {
         Event event = eventRepository.findByIdAndInitiatorId(eventId, userId)
                 .orElseThrow(() -> new NotFoundException("Event not found"));
-        return eventMapper.toEventFullDto(event, getConfirmedRequests(eventId), getViews(eventId));
+        return eventMapper.toEventFullDto(event, event.getConfirmedRequests(), getViews(eventId));
     }
 
     @Override
@@ -107,7 +133,7 @@ public class EventServiceImpl implements EventService {
 
         updateEventFields(event, updateRequest);
         Event updatedEvent = eventRepository.save(event);
-        return eventMapper.toEventFullDto(updatedEvent, getConfirmedRequests(eventId), getViews(eventId));
+        return eventMapper.toEventFullDto(updatedEvent, updatedEvent.getConfirmedRequests(), getViews(eventId));
     }
 
     @Override
@@ -117,17 +143,34 @@ public class EventServiceImpl implements EventService {
         Pageable pageable = PageRequest.of(from / size, size, Sort.by("eventDate").descending());
 
         List<Event> events = eventRepository.findEventsByAdminParams(users, states, categories, rangeStart, rangeEnd, pageable);
-        Map<Long, Long> confirmedRequests = getConfirmedRequests(events);
         Map<Long, Long> views = getViews(events);
 
         return events.stream()
                 .map(event -> eventMapper.toEventFullDto(
                         event,
-                        confirmedRequests.getOrDefault(event.getId(), 0L),
+                        event.getConfirmedRequests(),
                         views.getOrDefault(event.getId(), 0L)))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public EventSlice<EventFullDto> searchEventsByCursor(List<Long> users, List<EventState> states,
+                                                         List<Long> categories, LocalDateTime rangeStart,
+                                                         LocalDateTime rangeEnd, String cursor, int size) {
+        EventCursor before = EventCursor.decode(cursor, EventSort.EVENT_DATE);
+        List<Event> events = before == null
+                ? eventRepository.findEventsByAdminParams(users, states, categories, rangeStart, rangeEnd,
+                PageRequest.of(0, size, Sort.by("eventDate", "id").descending()))
+                : eventRepository.findEventsByAdminParamsBefore(users, states, categories, rangeStart, rangeEnd,
+                before.getEventDate(), before.getId(), PageRequest.ofSize(size));
+        Map<Long, Long> views = getViews(events);
+
+        return toSlice(events, EventSort.EVENT_DATE, size, event -> eventMapper.toEventFullDto(
+                event,
+                event.getConfirmedRequests(),
+                views.getOrDefault(event.getId(), 0L)));
+    }
+
     @Override
     @Transactional
     public EventFullDto updateEventByAdmin(Long eventId, UpdateEventAdminRequest updateRequest) {
@@ -155,12 +198,12 @@ public class EventServiceImpl implements EventService {
 
         updateEventFields(event, updateRequest);
         Event updatedEvent = eventRepository.save(event);
-        return eventMapper.toEventFullDto(updatedEvent, getConfirmedRequests(eventId), getViews(eventId));
+        return eventMapper.toEventFullDto(updatedEvent, updatedEvent.getConfirmedRequests(), getViews(eventId));
     }
 
     @Override
     public List<EventShortDto> getPublicEvents(EventSearchParams params, String sort, int from, int size, HttpServletRequest request) {
-        saveEventViewStats(null, request);
+        saveEventViewStats(request);
 
         Pageable pageable = PageRequest.of(from / size, size);
         if ("EVENT_DATE".equalsIgnoreCase(sort)) {
@@ -171,13 +214,12 @@ public class EventServiceImpl implements EventService {
                 params.getText(), params.getCategories(), params.getPaid(),
                 params.getRangeStart(), params.getRangeEnd(), params.getOnlyAvailable(), pageable);
 
-        Map<Long, Long> confirmedRequests = getConfirmedRequests(events);
         Map<Long, Long> views = getViews(events);
 
         return events.stream()
                 .map(event -> eventMapper.toEventShortDto(
                         event,
-                        confirmedRequests.getOrDefault(event.getId(), 0L),
+                        event.getConfirmedRequests(),
                         views.getOrDefault(event.getId(), 0L)))
                 .collect(Collectors.toList());
     }
@@ -187,28 +229,59 @@ public class EventServiceImpl implements EventService {
         Event event = eventRepository.findByIdAndState(id, EventState.PUBLISHED)
                 .orElseThrow(() -> new NotFoundException("Event not found or not published"));
 
-        saveEventViewStats(id, request);
-        return eventMapper.toEventFullDto(event, getConfirmedRequests(id), getViews(id));
+        // Просмотры читаются до записи хита, поэтому свой просмотр добавляется локально
+        long views = getViews(id);
+        if (saveEventView(id, request)) {
+            views++;
+        }
+        return eventMapper.toEventFullDto(event, event.getConfirmedRequests(), views);
     }
 
     @Override
     public List<ParticipationRequestDto> getEventRequests(Long userId, Long eventId) {
-        if (!eventRepository.existsByIdAndInitiatorId(eventId, userId)) {
-            throw new NotFoundException("Event not found or user is not initiator");
-        }
+        checkEventInitiator(userId, eventId);
 
         return requestRepository.findAllByEventId(eventId).stream()
                 .map(requestMapper::toParticipationRequestDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<ParticipationRequestDto> getEventRequests(Long userId, Long eventId, int from, int size) {
+        checkEventInitiator(userId, eventId);
+
+        return requestRepository.findAllByEventId(eventId, PageRequest.of(from / size, size, Sort.by("id"))).stream()
+                .map(requestMapper::toParticipationRequestDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void checkEventInitiator(Long userId, Long eventId) {
+        if (!eventRepository.existsByIdAndInitiatorId(eventId, userId)) {
+            throw new NotFoundException("Event not found or user is not initiator");
+        }
+    }
+
+    @Override
+    public void exportEventRequests(Long userId, Long eventId, Consumer<ParticipationRequestDto> consumer) {
+        checkEventInitiator(userId, eventId);
+
+        try (Stream<ParticipationRequest> requests = requestRepository.streamAllByEventId(eventId)) {
+            requests.forEach(request -> {
+                consumer.accept(requestMapper.toParticipationRequestDto(request));
+                // Отсоединяем прочитанные заявки, чтобы контекст персистентности не рос вместе с выгрузкой
+                entityManager.detach(request);
+            });
+        }
+    }
+
     @Override
     @Transactional
     public EventRequestStatusUpdateResult updateRequestStatuses(Long userId, Long eventId, EventRequestStatusUpdateRequest updateRequest) {
         Event event = eventRepository.findByIdAndInitiatorId(eventId, userId)
                 .orElseThrow(() -> new NotFoundException("Event not found or user is not initiator"));
 
-        long confirmed = getConfirmedRequests(eventId);
+        long confirmed = event.getConfirmedRequests();
         if (event.getParticipantLimit() > 0 && event.getParticipantLimit() <= confirmed) {
             throw new ConflictException("Participant limit reached");
         }
@@ -223,29 +296,38 @@ public class EventServiceImpl implements EventService {
             throw new ConflictException("All requests must be in PENDING status");
         }
 
-        EventRequestStatusUpdateResult result = new EventRequestStatusUpdateResult();
         RequestStatus newStatus = RequestStatus.valueOf(updateRequest.getStatus());
-
+        int confirmedCount = 0;
         if (newStatus == RequestStatus.CONFIRMED) {
-            int availableSlots = event.getParticipantLimit() - (int) confirmed;
-            for (ParticipationRequest request : requests) {
-                if (availableSlots > 0) {
-                    request.setStatus(RequestStatus.CONFIRMED);
-                    result.getConfirmedRequests().add(requestMapper.toParticipationRequestDto(request));
-                    availableSlots--;
-                } else {
-                    request.setStatus(RequestStatus.REJECTED);
-                    result.getRejectedRequests().add(requestMapper.toParticipationRequestDto(request));
-                }
-            }
-        } else {
-            for (ParticipationRequest request : requests) {
-                request.setStatus(RequestStatus.REJECTED);
-                result.getRejectedRequests().add(requestMapper.toParticipationRequestDto(request));
+            confirmedCount = eventRepository.reserveSeats(eventId, requests.size());
+            if (confirmedCount == 0 && !requests.isEmpty()) {
+                throw new ConflictException("Participant limit reached");
             }
         }
 
-        requestRepository.saveAll(requests);
+        List<ParticipationRequest> toConfirm = requests.subList(0, confirmedCount);
+        List<ParticipationRequest> toReject = requests.subList(confirmedCount, requests.size());
+        EventRequestStatusUpdateResult result = new EventRequestStatusUpdateResult(
+                toParticipationRequestDtos(toConfirm, RequestStatus.CONFIRMED),
+                toParticipationRequestDtos(toReject, RequestStatus.REJECTED));
+
+        // Два UPDATE на всю выборку вместо UPDATE на каждую заявку; условие по PENDING
+        // отсекает заявки, которые успела изменить конкурентная транзакция
+        int updated = 0;
+        if (!toConfirm.isEmpty()) {
+            updated += requestRepository.updatePendingStatuses(ids(toConfirm), RequestStatus.CONFIRMED);
+        }
+        if (!toReject.isEmpty()) {
+            updated += requestRepository.updatePendingStatuses(ids(toReject), RequestStatus.REJECTED);
+        }
+        if (updated != requests.size()) {
+            throw new ConflictException("All requests must be in PENDING status");
+        }
+
+        if (newStatus == RequestStatus.CONFIRMED && event.getParticipantLimit() > 0
+                && (confirmedCount < requests.size() || confirmed + confirmedCount >= event.getParticipantLimit())) {
+            requestRepository.rejectPendingByEventId(eventId);
+        }
         return result;
     }
 
@@ -261,71 +343,125 @@ public class EventServiceImpl implements EventService {
             Pageable pageable,
             HttpServletRequest request
     ) {
-        saveEventViewStats(null, request);
+        saveEventViewStats(request);
 
         List<Event> events = eventRepository.findPublicEventsWithFilters(
                 text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, pageable
         );
 
 
-        Map<Long, Long> confirmedRequests = getConfirmedRequests(events);
         Map<Long, Long> views = getViews(events);
 
         return events.stream()
                 .map(event -> eventMapper.toEventShortDto(
                         event,
-                        confirmedRequests.getOrDefault(event.getId(), 0L),
+                        event.getConfirmedRequests(),
                         views.getOrDefault(event.getId(), 0L)))
                 .collect(Collectors.toList());
     }
 
-    private Map<Long, Long> getConfirmedRequests(List<Event> events) {
-        List<Long> eventIds = events.stream().map(Event::getId).collect(Collectors.toList());
-        return requestRepository.countConfirmedRequestsByEventIds(eventIds).stream()
-                .collect(Collectors.toMap(ConfirmedRequestCount::getEventId, ConfirmedRequestCount::getCount));
+    @Override
+    public EventSlice<EventShortDto> getPublicEventsByCursor(
+            String text,
+            List<Long> categories,
+            Boolean paid,
+            LocalDateTime rangeStart,
+            LocalDateTime rangeEnd,
+            Boolean onlyAvailable,
+            EventSort sort,
+            String cursor,
+            int size,
+            HttpServletRequest request
+    ) {
+        EventCursor after = EventCursor.decode(cursor, sort);
+        saveEventViewStats(request);
+
+        List<Event> events = eventRepository.findPublicEventsAfter(
+                text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, after, size
+        );
+        Map<Long, Long> views = getViews(events);
+
+        return toSlice(events, sort, size, event -> eventMapper.toEventShortDto(
+                event,
+                event.getConfirmedRequests(),
+                views.getOrDefault(event.getId(), 0L)));
+    }
+
+    private <T> EventSlice<T> toSlice(List<Event> events, EventSort sort, int size, Function<Event, T> mapper) {
+        String nextCursor = events.size() < size
+                ? null
+                : EventCursor.after(events.get(events.size() - 1), sort).encode();
+        return new EventSlice<>(events.stream().map(mapper).collect(Collectors.toList()), nextCursor);
+    }
+
+    private List<ParticipationRequestDto> toParticipationRequestDtos(List<ParticipationRequest> requests,
+                                                                     RequestStatus status) {
+        return requests.stream()
+                .map(request -> {
+                    ParticipationRequestDto dto = requestMapper.toParticipationRequestDto(request);
+                    dto.setStatus(status.name());
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(List<ParticipationRequest> requests) {
+        return requests.stream().map(ParticipationRequest::getId).collect(Collectors.toList());
     }
 
     private Map<Long, Long> getViews(List<Event> events) {
-        List<String> uris = events.stream().map(e -> "/events/" + e.getId()).collect(Collectors.toList());
         try {
-            List<ViewStats> stats = statsClient.getStats(LocalDateTime.now().minusYears(1), LocalDateTime.now(), uris, true);
-            return stats.stream()
-                    .collect(Collectors.toMap(stat -> Long.valueOf(stat.getUri().split("/")[2]), ViewStats::getHits));
+            return viewCountCache.getAll(
+                    events.stream().map(Event::getId).collect(Collectors.toList()),
+                    viewCountLoader::loadAll);
         } catch (Exception e) {
             log.error("Error retrieving view stats: {}", e.getMessage());
             return Collections.emptyMap();
         }
     }
 
-    private long getConfirmedRequests(Long eventId) {
-        return requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED);
-    }
-
     private long getViews(Long eventId) {
         try {
-            String uri = "/events/" + eventId;
-            List<ViewStats> stats = statsClient.getStats(
-                    LocalDateTime.now().minusYears(1), LocalDateTime.now(), List.of(uri), true);
-            return stats.isEmpty() ? 0L : stats.get(0).getHits();
+            return viewCountCache.get(eventId, viewCountLoader::load);
         } catch (Exception e) {
             log.error("Stats client error for event {}: {}", eventId, e.getMessage());
             return 0L;
         }
     }
 
-    private void saveEventViewStats(Long eventId, HttpServletRequest request) {
+    private void saveEventViewStats(HttpServletRequest request) {
         try {
-            statsClient.saveHit(EndpointHit.builder()
-                    .app("ewm-main-service")
-                    .uri(eventId != null ? "/events/" + eventId : "/events")
-                    .ip(request.getRemoteAddr())
-                    .timestamp(LocalDateTime.now())
-                    .build());
+            statsClient.saveHitAsync(viewHit("/events", request));
         } catch (Exception e) {
             log.error("Error saving view stats: {}", e.getMessage());
         }
     }
 
+    /**
+     * Buffers the hit for a single event and counts it into the cached views.
+     *
+     * @return whether the view adds to the cached count, see {@link ViewCountCache#increment}
+     */
+    private boolean saveEventView(Long eventId, HttpServletRequest request) {
+        EndpointHit hit = viewHit("/events/" + eventId, request);
+        try {
+            statsClient.saveHitAsync(hit);
+        } catch (Exception e) {
+            log.error("Error saving view stats: {}", e.getMessage());
+        }
+        eventViewsSynchronizer.markViewed(eventId);
+        return viewCountCache.increment(eventId, hit.getIp());
+    }
+
+    private static EndpointHit viewHit(String uri, HttpServletRequest request) {
+        return EndpointHit.builder()
+                .app("ewm-main-service")
+                .uri(uri)
+                .ip(request.getRemoteAddr())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
     private void updateEventFields(Event event, UpdateEventUserRequest updateRequest) {
         if (updateRequest.getAnnotation() != null && !updateRequest.getAnnotation().isBlank()) {
             event.setAnnotation(updateRequest.getAnnotation());
@@ -0,0 +1,119 @@
+package ru.practicum.service.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.repository.event.EventRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copies view counts of published events from the stats server into
+ * {@code events.views}, so public search can sort by views in SQL. The first
+ * run after startup and then every {@code events.views.sync.full-every-runs}
+ * runs walk every published event, which also picks up hits that did not go
+ * through this instance; the runs in between only refresh events viewed since
+ * the previous run. After a failed run the following runs are skipped,
+ * doubling the pause up to {@value #MAX_SKIPPED_RUNS} runs.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventViewsSynchronizer {
+    private static final int MAX_SKIPPED_RUNS = 16;
+
+    private final EventRepository eventRepository;
+    private final ViewCountLoader viewCountLoader;
+
+    private final Set<Long> viewedEvents = ConcurrentHashMap.newKeySet();
+    private int runsUntilFullSync;
+    private int failures;
+    private int runsToSkip;
+
+    @Value("${events.views.sync.batch-size:100}")
+    private int batchSize;
+
+    @Value("${events.views.sync.full-every-runs:60}")
+    private int fullSyncEveryRuns;
+
+    public void markViewed(Long eventId) {
+        viewedEvents.add(eventId);
+    }
+
+    @Scheduled(initialDelayString = "${events.views.sync.initial-delay-ms:10000}",
+            fixedDelayString = "${events.views.sync.interval-ms:60000}")
+    public synchronized void synchronize() {
+        if (runsToSkip > 0) {
+            runsToSkip--;
+            return;
+        }
+
+        try {
+            boolean full = runsUntilFullSync <= 0;
+            long updated = full ? synchronizeAll() : synchronizeViewed();
+            // Неудачный проход не сдвигает отсчёт, полный проход повторяется
+            runsUntilFullSync = full ? fullSyncEveryRuns - 1 : runsUntilFullSync - 1;
+            failures = 0;
+            log.debug("Views synchronized for {} events", updated);
+        } catch (Exception e) {
+            failures++;
+            runsToSkip = Math.min(1 << (failures - 1), MAX_SKIPPED_RUNS);
+            log.error("Error synchronizing views, skipping {} runs: {}", runsToSkip, e.getMessage());
+        }
+    }
+
+    private long synchronizeAll() {
+        // Просмотры, пришедшие во время полного прохода, обновятся следующим запуском
+        viewedEvents.clear();
+        long lastId = 0;
+        long updated = 0;
+        List<Long> eventIds = eventRepository.findPublishedIdsAfter(lastId, PageRequest.of(0, batchSize));
+        while (!eventIds.isEmpty()) {
+            updated += update(eventIds);
+            lastId = eventIds.get(eventIds.size() - 1);
+            eventIds = eventRepository.findPublishedIdsAfter(lastId, PageRequest.of(0, batchSize));
+        }
+        return updated;
+    }
+
+    private long synchronizeViewed() {
+        long updated = 0;
+        List<Long> batch = takeViewed();
+        while (!batch.isEmpty()) {
+            try {
+                updated += update(batch);
+            } catch (RuntimeException e) {
+                viewedEvents.addAll(batch);
+                throw e;
+            }
+            batch = takeViewed();
+        }
+        return updated;
+    }
+
+    private List<Long> takeViewed() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        Iterator<Long> iterator = viewedEvents.iterator();
+        while (batch.size() < batchSize && iterator.hasNext()) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+        return batch;
+    }
+
+    private int update(List<Long> eventIds) {
+        Map<Long, Long> views = new HashMap<>(viewCountLoader.loadAll(eventIds));
+        eventIds.forEach(id -> views.putIfAbsent(id, 0L));
+        eventRepository.updateViews(views);
+        return views.size();
+    }
+}
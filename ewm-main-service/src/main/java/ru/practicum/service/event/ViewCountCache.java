@@ -0,0 +1,145 @@
+package ru.practicum.service.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-process cache of per-event view counts, bounded by size (least recently
+ * used entries are evicted first) and by time to live. Counts are unique
+ * per IP, so a recorded view bumps a cached count only the first time its IP
+ * is seen while the entry lives; the stats server is asked again once it
+ * expires. An IP whose earlier views the loaded count already includes can
+ * still bump it once, until the entry expires.
+ */
+@Component
+public class ViewCountCache {
+    private static final String CACHE_NAME = "eventViews";
+    private static final int MAX_TRACKED_VIEWERS = 1_000;
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Long, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ViewCountCache(@Value("${stats.views.cache.max-size:10000}") int maxSize,
+                          @Value("${stats.views.cache.ttl-ms:60000}") long ttlMs,
+                          MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMs * 1_000_000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > ViewCountCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hits = cacheCounter(meterRegistry, "cache.gets", "result", "hit");
+        this.misses = cacheCounter(meterRegistry, "cache.gets", "result", "miss");
+        this.evictions = cacheCounter(meterRegistry, "cache.evictions");
+        Gauge.builder("cache.size", this, ViewCountCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public long get(Long eventId, ToLongFunction<Long> loader) {
+        Long cached = getIfFresh(eventId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long views = loader.applyAsLong(eventId);
+        put(eventId, views);
+        return views;
+    }
+
+    public Map<Long, Long> getAll(Collection<Long> eventIds, Function<Collection<Long>, Map<Long, Long>> loader) {
+        Map<Long, Long> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long eventId : eventIds) {
+            Long cached = getIfFresh(eventId);
+            if (cached != null) {
+                result.put(eventId, cached);
+            } else {
+                missing.add(eventId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<Long, Long> loaded = loader.apply(missing);
+            for (Long eventId : missing) {
+                long views = loaded.getOrDefault(eventId, 0L);
+                put(eventId, views);
+                result.put(eventId, views);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts a view from {@code ip} into the cached entry of the event.
+     *
+     * @return whether the IP is new to the entry, i.e. the view adds to the count
+     */
+    public synchronized boolean increment(Long eventId, String ip) {
+        Entry entry = entries.get(eventId);
+        if (entry == null || !entry.viewers().add(ip)) {
+            return false;
+        }
+        // Популярное событие не копит IP без предела: запись перечитается со stats-сервера
+        if (entry.viewers().size() > MAX_TRACKED_VIEWERS) {
+            entries.remove(eventId);
+            return true;
+        }
+        entries.put(eventId, new Entry(entry.views() + 1, entry.expiresAt(), entry.viewers()));
+        return true;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized Long getIfFresh(Long eventId) {
+        Entry entry = entries.get(eventId);
+        if (entry == null || entry.expiresAt() - System.nanoTime() <= 0) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.views();
+    }
+
+    private synchronized void put(Long eventId, long views) {
+        entries.put(eventId, new Entry(views, System.nanoTime() + ttlNanos, new HashSet<>()));
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String name, String... tags) {
+        return Counter.builder(name)
+                .tag("cache", CACHE_NAME)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    private record Entry(long views, long expiresAt, Set<String> viewers) {
+    }
+}
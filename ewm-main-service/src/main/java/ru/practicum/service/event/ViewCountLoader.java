@@ -0,0 +1,148 @@
+package ru.practicum.service.event;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.ViewStats;
+import ru.practicum.stats_client.StatsClient;
+import ru.practicum.stats_client.StatsClientException;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Loads event view counts from the stats server. A single-event lookup is
+ * sent at once when no other request is in flight; lookups arriving while one
+ * is outstanding are coalesced into one {@code /stats} request, sent when the
+ * outstanding one completes or {@code batchWindowMs} later, whichever comes
+ * first, and the result is fanned back out to every caller.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ViewCountLoader {
+    private static final String EVENT_URI_PREFIX = "/events/";
+    private static final int DISPATCHER_THREADS = 2;
+
+    private final StatsClient statsClient;
+
+    @Value("${stats.views.batch-window-ms:10}")
+    private long batchWindowMs;
+
+    @Value("${stats.views.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${stats.views.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private final Object lock = new Object();
+    private Map<Long, CompletableFuture<Long>> pending = new HashMap<>();
+    private int inFlight;
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newScheduledThreadPool(DISPATCHER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "view-count-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public long load(Long eventId) {
+        CompletableFuture<Long> future;
+        synchronized (lock) {
+            future = pending.get(eventId);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                pending.put(eventId, future);
+                if (pending.size() == 1 && inFlight == 0) {
+                    executor.execute(this::dispatch);
+                } else if (pending.size() == 1) {
+                    executor.schedule(this::dispatch, batchWindowMs, TimeUnit.MILLISECONDS);
+                } else if (pending.size() >= maxBatchSize) {
+                    executor.execute(this::dispatch);
+                }
+            }
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StatsClientException("Interrupted while loading views for event " + eventId);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new StatsClientException("Error loading views for event " + eventId + ": " + e.getMessage());
+        }
+    }
+
+    public Map<Long, Long> loadAll(Collection<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Map.of();
+        }
+
+        List<String> uris = eventIds.stream().map(id -> EVENT_URI_PREFIX + id).collect(Collectors.toList());
+        LocalDateTime end = LocalDateTime.now();
+        Map<Long, Long> views = new HashMap<>();
+        // URI уходят в query string GET /stats: сотня укладывается в лимит заголовка Tomcat (8 КБ)
+        for (int from = 0; from < uris.size(); from += maxBatchSize) {
+            List<String> chunk = uris.subList(from, Math.min(from + maxBatchSize, uris.size()));
+            for (ViewStats stat : statsClient.getStats(end.minusYears(1), end, chunk, true)) {
+                views.merge(Long.valueOf(stat.getUri().substring(EVENT_URI_PREFIX.length())), stat.getHits(), Long::sum);
+            }
+        }
+        return views;
+    }
+
+    private void dispatch() {
+        Map<Long, CompletableFuture<Long>> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+            inFlight++;
+        }
+
+        try {
+            Map<Long, Long> views = loadAll(batch.keySet());
+            batch.forEach((eventId, future) -> future.complete(views.getOrDefault(eventId, 0L)));
+            log.debug("Views loaded for {} events in one request", batch.size());
+        } catch (Exception e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        } finally {
+            synchronized (lock) {
+                inFlight--;
+                // Накопившиеся за время запроса lookup'ы не ждут конца окна
+                if (!pending.isEmpty()) {
+                    executor.execute(this::dispatch);
+                }
+            }
+        }
+    }
+
+    int pendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+}
@@ -7,6 +7,8 @@ import java.util.List;
 public interface RequestService {
     List<ParticipationRequestDto> getUserRequests(Long userId);
 
+    List<ParticipationRequestDto> getUserRequests(Long userId, int from, int size);
+
     ParticipationRequestDto createRequest(Long userId, Long eventId);
 
     ParticipationRequestDto cancelRequest(Long userId, Long requestId);
@@ -1,6 +1,9 @@
 package ru.practicum.service.request;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.dto.participationRequest.ParticipationRequestDto;
@@ -20,6 +23,7 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed("ewm.service")
 public class RequestServiceImpl implements RequestService {
     private final RequestRepository requestRepository;
     private final UserRepository userRepository;
@@ -34,6 +38,13 @@ public class RequestServiceImpl implements RequestService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<ParticipationRequestDto> getUserRequests(Long userId, int from, int size) {
+        return requestRepository.findAllByRequesterId(userId, PageRequest.of(from / size, size, Sort.by("id"))).stream()
+                .map(requestMapper::toParticipationRequestDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public ParticipationRequestDto createRequest(Long userId, Long eventId) {
         final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
@@ -52,8 +63,7 @@ public class RequestServiceImpl implements RequestService {
         }
 
 
-        long confirmed = requestRepository.countByEventIdAndStatus(eventId, RequestStatus.PENDING);
-        if (event.getParticipantLimit() > 0 && confirmed >= event.getParticipantLimit()) {
+        if (event.getParticipantLimit() > 0 && event.getConfirmedRequests() >= event.getParticipantLimit()) {
             throw new ConflictException("Participant limit reached");
         }
 
@@ -71,7 +81,11 @@ public class RequestServiceImpl implements RequestService {
                 .status(status)
                 .build();
 
-        return requestMapper.toParticipationRequestDto(requestRepository.save(request));
+        if (status == RequestStatus.CONFIRMED && eventRepository.reserveSeats(eventId, 1) == 0) {
+            throw new ConflictException("Participant limit reached");
+        }
+        ParticipationRequest saved = requestRepository.save(request);
+        return requestMapper.toParticipationRequestDto(saved);
     }
 
     @Override
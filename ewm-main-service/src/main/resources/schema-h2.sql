@@ -0,0 +1,3 @@
+-- Упрощённый поиск для H2: строка в нижнем регистре вместо tsvector
+ALTER TABLE events ADD COLUMN IF NOT EXISTS search_vector VARCHAR
+    GENERATED ALWAYS AS (LOWER(annotation || ' ' || description));
\ No newline at end of file
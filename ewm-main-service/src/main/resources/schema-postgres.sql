@@ -0,0 +1,5 @@
+-- Полнотекстовый поиск по аннотации и описанию событий
+ALTER TABLE events ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('russian', annotation || ' ' || description)) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_events_search_vector ON events USING GIN (search_vector);
\ No newline at end of file
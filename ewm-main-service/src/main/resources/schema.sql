@@ -26,6 +26,8 @@ CREATE TABLE IF NOT EXISTS events (
     paid BOOLEAN NOT NULL DEFAULT FALSE,
     participant_limit INTEGER NOT NULL DEFAULT 0,
     request_moderation BOOLEAN NOT NULL DEFAULT TRUE,
+    confirmed_requests BIGINT NOT NULL DEFAULT 0,
+    views BIGINT NOT NULL DEFAULT 0,
     state VARCHAR(20) NOT NULL CHECK (state IN ('PENDING', 'PUBLISHED', 'CANCELED'))
 );
 
@@ -80,4 +82,25 @@ CREATE INDEX IF NOT EXISTS idx_comment_reports_user ON comment_reports(user_id);
 
 CREATE INDEX IF NOT EXISTS idx_events_state_date ON events(state, event_date);
 CREATE INDEX IF NOT EXISTS idx_events_category ON events(category_id);
-CREATE INDEX IF NOT EXISTS idx_events_initiator ON events(initiator_id);
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS idx_events_initiator ON events(initiator_id);
+CREATE INDEX IF NOT EXISTS idx_compilations_pinned ON compilations(pinned, id);
+
+-- Однократные миграции данных: скрипт выполняется при каждом старте, выполненные миграции отмечаются здесь
+CREATE TABLE IF NOT EXISTS schema_migrations (
+    name VARCHAR(255) PRIMARY KEY,
+    applied_on TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Счётчик подтверждённых заявок для баз, созданных до его появления; дальше его ведёт только бронирование мест
+ALTER TABLE events ADD COLUMN IF NOT EXISTS confirmed_requests BIGINT NOT NULL DEFAULT 0;
+UPDATE events SET confirmed_requests = (
+    SELECT COUNT(*) FROM participation_requests r
+    WHERE r.event_id = events.id AND r.status = 'CONFIRMED')
+WHERE NOT EXISTS (SELECT 1 FROM schema_migrations WHERE name = 'events_confirmed_requests_backfill');
+INSERT INTO schema_migrations (name)
+SELECT 'events_confirmed_requests_backfill'
+WHERE NOT EXISTS (SELECT 1 FROM schema_migrations WHERE name = 'events_confirmed_requests_backfill');
+
+-- Просмотры, синхронизируемые со stats-сервером, для сортировки VIEWS
+ALTER TABLE events ADD COLUMN IF NOT EXISTS views BIGINT NOT NULL DEFAULT 0;
+CREATE INDEX IF NOT EXISTS idx_events_state_views ON events(state, views DESC, id);
\ No newline at end of file
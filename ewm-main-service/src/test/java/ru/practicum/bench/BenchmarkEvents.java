@@ -0,0 +1,44 @@
+package ru.practicum.bench;
+
+import ru.practicum.model.Category;
+import ru.practicum.model.Event;
+import ru.practicum.model.EventState;
+import ru.practicum.model.Location;
+import ru.practicum.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Published events with field lengths typical for the public listings.
+ */
+final class BenchmarkEvents {
+    private static final LocalDateTime CREATED_ON = LocalDateTime.of(2024, 3, 1, 10, 15, 30);
+
+    private BenchmarkEvents() {
+    }
+
+    static List<Event> create(int count) {
+        List<Event> events = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            events.add(Event.builder()
+                    .id(id)
+                    .title("Концерт камерной музыки №" + id)
+                    .annotation("Вечер камерной музыки в малом зале: ".repeat(5))
+                    .description("Программа вечера, состав исполнителей и порядок входа в зал. ".repeat(20))
+                    .category(new Category(id % 20 + 1, "Концерты " + (id % 20 + 1)))
+                    .initiator(new User(id % 100 + 1, "Организатор " + (id % 100 + 1), "org" + id + "@example.com"))
+                    .eventDate(CREATED_ON.plusDays(30).plusMinutes(id))
+                    .createdOn(CREATED_ON)
+                    .publishedOn(CREATED_ON.plusHours(2))
+                    .location(new Location(55.75f, 37.62f))
+                    .paid(id % 2 == 0)
+                    .participantLimit((int) (id % 50))
+                    .requestModeration(true)
+                    .state(EventState.PUBLISHED)
+                    .build());
+        }
+        return events;
+    }
+}
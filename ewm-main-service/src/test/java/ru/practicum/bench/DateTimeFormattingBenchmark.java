@@ -0,0 +1,73 @@
+package ru.practicum.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.dto.event.EventShortDto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting of {@link LocalDateTime} in the {@code yyyy-MM-dd HH:mm:ss}
+ * pattern used by the API, directly and through {@code @JsonFormat}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateTimeFormattingBenchmark {
+    private static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+
+    private LocalDateTime timestamp;
+    private String formatted;
+    private ObjectMapper objectMapper;
+    private EventShortDto event;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        timestamp = LocalDateTime.of(2024, 3, 31, 19, 30, 15);
+        formatted = FORMATTER.format(timestamp);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        event = EventShortDto.builder().eventDate(timestamp).build();
+    }
+
+    @Benchmark
+    public String formatWithSharedFormatter() {
+        return FORMATTER.format(timestamp);
+    }
+
+    @Benchmark
+    public String formatWithNewFormatter() {
+        return DateTimeFormatter.ofPattern(PATTERN).format(timestamp);
+    }
+
+    @Benchmark
+    public LocalDateTime parseWithSharedFormatter() {
+        return LocalDateTime.parse(formatted, FORMATTER);
+    }
+
+    /**
+     * A DTO with only {@code eventDate} set, so the cost is dominated by the
+     * {@code @JsonFormat} date serializer.
+     */
+    @Benchmark
+    public String serializeJsonFormat() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(event);
+    }
+}
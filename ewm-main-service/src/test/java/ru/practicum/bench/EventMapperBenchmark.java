@@ -0,0 +1,81 @@
+package ru.practicum.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import ru.practicum.dto.event.EventFullDto;
+import ru.practicum.dto.event.EventShortDto;
+import ru.practicum.mapper.CategoryMapperImpl;
+import ru.practicum.mapper.EventMapper;
+import ru.practicum.mapper.EventMapperImpl;
+import ru.practicum.mapper.UserMapperImpl;
+import ru.practicum.model.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the MapStruct entity-to-DTO mapping done for every event of a
+ * listing, per event and per page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventMapperBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private AnnotationConfigApplicationContext context;
+    private EventMapper eventMapper;
+    private List<Event> events;
+    private Event event;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Мапперы связываются так же, как в приложении: EventMapper использует UserMapper и CategoryMapper
+        context = new AnnotationConfigApplicationContext(
+                EventMapperImpl.class, UserMapperImpl.class, CategoryMapperImpl.class);
+        eventMapper = context.getBean(EventMapper.class);
+        events = BenchmarkEvents.create(size);
+        event = events.get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public EventFullDto toEventFullDto() {
+        return eventMapper.toEventFullDto(event, 5L, 100L);
+    }
+
+    @Benchmark
+    public EventShortDto toEventShortDto() {
+        return eventMapper.toEventShortDto(event, 5L, 100L);
+    }
+
+    @Benchmark
+    public List<EventShortDto> toEventShortDtoList() {
+        List<EventShortDto> dtos = new ArrayList<>(events.size());
+        for (Event listed : events) {
+            dtos.add(eventMapper.toEventShortDto(listed, 5L, 100L));
+        }
+        return dtos;
+    }
+}
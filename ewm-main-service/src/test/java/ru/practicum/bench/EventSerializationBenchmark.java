@@ -0,0 +1,92 @@
+package ru.practicum.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.dto.event.EventFullDto;
+import ru.practicum.dto.event.EventShortDto;
+import ru.practicum.mapper.CategoryMapperImpl;
+import ru.practicum.mapper.EventMapper;
+import ru.practicum.mapper.EventMapperImpl;
+import ru.practicum.mapper.UserMapperImpl;
+import ru.practicum.model.Event;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of listing responses of 10/100/1000 events, with
+ * the {@link ObjectMapper} configured the way Spring Boot configures the
+ * one used by the controllers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventSerializationBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter shortListWriter;
+    private ObjectWriter fullListWriter;
+    private List<EventShortDto> shortDtos;
+    private List<EventFullDto> fullDtos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        shortListWriter = objectMapper.writerFor(new TypeReference<List<EventShortDto>>() {
+        });
+        fullListWriter = objectMapper.writerFor(new TypeReference<List<EventFullDto>>() {
+        });
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+                EventMapperImpl.class, UserMapperImpl.class, CategoryMapperImpl.class)) {
+            EventMapper eventMapper = context.getBean(EventMapper.class);
+            List<Event> events = BenchmarkEvents.create(size);
+            shortDtos = events.stream()
+                    .map(event -> eventMapper.toEventShortDto(event, 5L, 100L))
+                    .toList();
+            fullDtos = events.stream()
+                    .map(event -> eventMapper.toEventFullDto(event, 5L, 100L))
+                    .toList();
+        }
+    }
+
+    @Benchmark
+    public byte[] shortList() throws JsonProcessingException {
+        return shortListWriter.writeValueAsBytes(shortDtos);
+    }
+
+    @Benchmark
+    public byte[] fullList() throws JsonProcessingException {
+        return fullListWriter.writeValueAsBytes(fullDtos);
+    }
+
+    /**
+     * Like {@link #shortList()}, but resolving the serializer from the runtime
+     * type on each call, as {@code objectMapper.writeValueAsBytes} does.
+     */
+    @Benchmark
+    public byte[] shortListUntyped() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(shortDtos);
+    }
+}
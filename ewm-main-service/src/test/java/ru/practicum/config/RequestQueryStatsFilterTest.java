@@ -0,0 +1,87 @@
+package ru.practicum.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RequestQueryStatsFilterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:request_stats;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(new QueryStatsDataSource(h2));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS item (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("MERGE INTO item KEY (id) VALUES (1), (2), (3)");
+    }
+
+    @Test
+    void doFilter_shouldCountStatementsAndRows() throws Exception {
+        MockHttpServletResponse response = perform(new RequestQueryStatsFilter(meterRegistry, true, 0), () -> {
+            jdbcTemplate.queryForList("SELECT id FROM item", Long.class);
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item", Long.class);
+        });
+
+        assertEquals("2", response.getHeader(RequestQueryStatsFilter.STATEMENTS_HEADER));
+        assertEquals("4", response.getHeader(RequestQueryStatsFilter.ROWS_HEADER));
+        assertEquals(2.0, meterRegistry.get("ewm.request.db.statements")
+                .tag("uri", "/items").summary().totalAmount());
+        assertEquals(4.0, meterRegistry.get("ewm.request.db.rows")
+                .tag("uri", "/items").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("ewm.request.db.time").tag("uri", "/items").timer().count());
+    }
+
+    @Test
+    void doFilter_shouldNotCountQueriesOutsideRequest() throws Exception {
+        jdbcTemplate.queryForList("SELECT id FROM item", Long.class);
+
+        MockHttpServletResponse response = perform(new RequestQueryStatsFilter(meterRegistry, true, 0), () -> {
+        });
+
+        assertEquals("0", response.getHeader(RequestQueryStatsFilter.STATEMENTS_HEADER));
+        assertEquals("0", response.getHeader(RequestQueryStatsFilter.ROWS_HEADER));
+    }
+
+    @Test
+    void doFilter_shouldOmitHeadersUnlessEnabled() throws Exception {
+        MockHttpServletResponse response = perform(new RequestQueryStatsFilter(meterRegistry, false, 1), () -> {
+            jdbcTemplate.queryForList("SELECT id FROM item", Long.class);
+            jdbcTemplate.queryForList("SELECT id FROM item", Long.class);
+        });
+
+        assertNull(response.getHeader(RequestQueryStatsFilter.STATEMENTS_HEADER));
+        assertEquals(2.0, meterRegistry.get("ewm.request.db.statements").summary().totalAmount());
+    }
+
+    private MockHttpServletResponse perform(RequestQueryStatsFilter filter, Runnable handler) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/items");
+                handler.run();
+                resp.getWriter().write("[]");
+            }
+        };
+
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+        return response;
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.repository.compilation;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.model.*;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.defer-datasource-initialization=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.platform=h2"
+})
+class CompilationRepositoryQueryCountTest {
+    private static final int COMPILATIONS = 6;
+    private static final int EVENTS_PER_COMPILATION = 3;
+
+    @Autowired
+    private CompilationRepository compilationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        for (int i = 0; i < COMPILATIONS; i++) {
+            Set<Event> events = new HashSet<>();
+            for (int j = 0; j < EVENTS_PER_COMPILATION; j++) {
+                User initiator = new User(null, "User " + i + j, "user" + i + "_" + j + "@example.com");
+                Category category = new Category(null, "Category " + i + j);
+                entityManager.persist(initiator);
+                entityManager.persist(category);
+                Event event = Event.builder()
+                        .title("Event " + i + j)
+                        .annotation("Annotation")
+                        .description("Description")
+                        .category(category)
+                        .initiator(initiator)
+                        .eventDate(LocalDateTime.now().plusDays(1))
+                        .createdOn(LocalDateTime.now())
+                        .location(new Location(55.75f, 37.62f))
+                        .paid(false)
+                        .participantLimit(0)
+                        .requestModeration(true)
+                        .state(EventState.PUBLISHED)
+                        .build();
+                entityManager.persist(event);
+                events.add(event);
+            }
+            entityManager.persist(Compilation.builder()
+                    .title("Compilation " + i)
+                    .pinned(i % 2 == 0)
+                    .events(events)
+                    .build());
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void findPageWithEvents_shouldUseConstantStatementCount() {
+        assertEquals(2, countStatements(2));
+        assertEquals(2, countStatements(COMPILATIONS));
+    }
+
+    private long countStatements(int size) {
+        entityManager.clear();
+        statistics.clear();
+
+        List<Long> ids = compilationRepository.findPageIds(PageRequest.of(0, size, Sort.by("id")));
+        List<Compilation> compilations = compilationRepository.findAllByIdIn(ids);
+        compilations.forEach(compilation -> {
+            assertEquals(EVENTS_PER_COMPILATION, compilation.getEvents().size());
+            compilation.getEvents().forEach(event -> {
+                event.getCategory().getName();
+                event.getInitiator().getName();
+            });
+        });
+
+        assertEquals(size, compilations.size());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.repository.event;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.model.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.defer-datasource-initialization=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.platform=h2"
+})
+class EventRepositoryQueryCountTest {
+    private static final int EVENTS = 12;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Long initiatorId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        User owner = new User(null, "Owner", "owner@example.com");
+        entityManager.persist(owner);
+        initiatorId = owner.getId();
+
+        for (int i = 0; i < EVENTS; i++) {
+            // Разные пользователи и категории, чтобы каждое ленивое обращение было отдельным запросом
+            User initiator = new User(null, "User " + i, "user" + i + "@example.com");
+            Category category = new Category(null, "Category " + i);
+            entityManager.persist(initiator);
+            entityManager.persist(category);
+            entityManager.persist(Event.builder()
+                    .title("Event " + i)
+                    .annotation("Annotation " + i)
+                    .description("Description " + i)
+                    .category(category)
+                    .initiator(i < EVENTS / 2 ? owner : initiator)
+                    .eventDate(LocalDateTime.now().plusDays(i + 1))
+                    .createdOn(LocalDateTime.now())
+                    .location(new Location(55.75f, 37.62f))
+                    .paid(false)
+                    .participantLimit(0)
+                    .requestModeration(true)
+                    .state(EventState.PUBLISHED)
+                    .build());
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void findPublicEventsWithFilters_shouldUseConstantStatementCount() {
+        assertConstantStatementCount(size -> eventRepository.findPublicEventsWithFilters(
+                null, null, null, null, null, false, EventSort.EVENT_DATE, PageRequest.of(0, size)));
+    }
+
+    @Test
+    void findPublicEventsAfter_shouldUseConstantStatementCount() {
+        assertConstantStatementCount(size -> eventRepository.findPublicEventsAfter(
+                null, null, null, null, null, false, EventSort.VIEWS, null, size));
+    }
+
+    @Test
+    void findEventsByAdminParams_shouldUseConstantStatementCount() {
+        assertConstantStatementCount(size -> eventRepository.findEventsByAdminParams(
+                null, null, null, null, null, PageRequest.of(0, size, Sort.by("eventDate").descending())));
+    }
+
+    @Test
+    void findAllByInitiatorId_shouldUseConstantStatementCount() {
+        assertConstantStatementCount(size -> eventRepository.findAllByInitiatorId(
+                initiatorId, PageRequest.of(0, size)));
+    }
+
+    /**
+     * Runs the listing for a small and a large page, touching everything the
+     * event DTOs read, and expects both to cost a single statement.
+     */
+    private void assertConstantStatementCount(IntFunction<List<Event>> listing) {
+        assertEquals(1, countStatements(listing, 2));
+        assertEquals(1, countStatements(listing, EVENTS));
+    }
+
+    private long countStatements(IntFunction<List<Event>> listing, int size) {
+        entityManager.clear();
+        statistics.clear();
+
+        listing.apply(size).forEach(event -> {
+            event.getCategory().getName();
+            event.getInitiator().getName();
+        });
+
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.repository.event;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.model.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.defer-datasource-initialization=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.repository.event.EventSearchTest$RecordingInspector",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.platform=h2"
+})
+class EventSearchTest {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long jazzId;
+    private Long rockId;
+
+    @BeforeEach
+    void setUp() {
+        User initiator = new User(null, "Initiator", "initiator@example.com");
+        Category category = new Category(null, "Concerts");
+        entityManager.persist(initiator);
+        entityManager.persist(category);
+        jazzId = persistEvent(initiator, category, "Jazz evening", "Quiet jazz in the park");
+        rockId = persistEvent(initiator, category, "Rock night", "Loud rock, a little jazz at the end of the night");
+        persistEvent(initiator, category, "Chess club", "Weekly chess games");
+        entityManager.flush();
+        entityManager.clear();
+        RecordingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void findPublicEventsWithFilters_shouldRankMatches() {
+        List<Event> events = eventRepository.findPublicEventsWithFilters("jazz", null, null, null, null, false,
+                EventSort.RELEVANCE, PageRequest.of(0, 10));
+
+        assertEquals(List.of(jazzId, rockId), ids(events));
+    }
+
+    @Test
+    void loadingEvents_shouldNotSelectSearchVector() {
+        eventRepository.findById(jazzId).orElseThrow();
+        eventRepository.findPublicEventsWithFilters("jazz", null, null, null, null, false,
+                EventSort.RELEVANCE, PageRequest.of(0, 10));
+
+        List<String> selects = RecordingInspector.STATEMENTS.stream()
+                .map(sql -> sql.substring(0, sql.toLowerCase().indexOf(" from ")))
+                .collect(Collectors.toList());
+        assertEquals(2, selects.size());
+        selects.forEach(select -> assertFalse(select.contains("search_vector"), select));
+        assertTrue(RecordingInspector.STATEMENTS.get(1).contains("search_vector"));
+    }
+
+    private Long persistEvent(User initiator, Category category, String annotation, String description) {
+        Event event = Event.builder()
+                .title(annotation)
+                .annotation(annotation)
+                .description(description)
+                .category(category)
+                .initiator(initiator)
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .createdOn(LocalDateTime.now())
+                .location(new Location(55.75f, 37.62f))
+                .paid(false)
+                .participantLimit(0)
+                .requestModeration(true)
+                .state(EventState.PUBLISHED)
+                .build();
+        entityManager.persist(event);
+        return event.getId();
+    }
+
+    private static List<Long> ids(List<Event> events) {
+        return events.stream().map(Event::getId).collect(Collectors.toList());
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package ru.practicum.repository.event;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.model.*;
+import ru.practicum.repository.category.CategoryRepository;
+import ru.practicum.repository.user.UserRepository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seats;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=32",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.defer-datasource-initialization=true",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.platform=h2"
+})
+class EventSeatReservationConcurrencyTest {
+    private static final int THREADS = 64;
+    private static final int PARTICIPANT_LIMIT = 25;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void reserveSeats_shouldNeverExceedParticipantLimitUnderContention() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long eventId = transactionTemplate.execute(status -> createEvent(PARTICIPANT_LIMIT));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                int requested = i % 3 + 1;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return transactionTemplate.execute(status -> eventRepository.reserveSeats(eventId, requested));
+                }));
+            }
+            start.countDown();
+
+            int granted = 0;
+            for (Future<Integer> result : results) {
+                granted += result.get();
+            }
+
+            assertEquals(PARTICIPANT_LIMIT, granted);
+            assertEquals(PARTICIPANT_LIMIT, eventRepository.findById(eventId).orElseThrow().getConfirmedRequests());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void reserveSeats_shouldGrantEverythingForUnlimitedEvent() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long eventId = transactionTemplate.execute(status -> createEvent(0));
+
+        int granted = transactionTemplate.execute(status -> eventRepository.reserveSeats(eventId, 1000));
+
+        assertEquals(1000, granted);
+        assertEquals(1000L, eventRepository.findById(eventId).orElseThrow().getConfirmedRequests());
+    }
+
+    @Test
+    void save_shouldKeepSeatsReservedAfterEventWasLoaded() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        TransactionTemplate reservation = new TransactionTemplate(transactionManager);
+        reservation.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Long eventId = transactionTemplate.execute(status -> createEvent(PARTICIPANT_LIMIT));
+
+        // Правка события админом читает строку до брони, а сохраняет после её коммита
+        transactionTemplate.executeWithoutResult(status -> {
+            Event event = eventRepository.findById(eventId).orElseThrow();
+            int reserved = reservation.execute(inner -> eventRepository.reserveSeats(eventId, 5));
+            assertEquals(5, reserved);
+            event.setTitle("Updated");
+            eventRepository.save(event);
+        });
+
+        Event event = eventRepository.findById(eventId).orElseThrow();
+        assertEquals("Updated", event.getTitle());
+        assertEquals(5L, event.getConfirmedRequests());
+    }
+
+    @Test
+    void schemaInit_shouldNotRecountConfirmedRequestsOnRestart() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long eventId = transactionTemplate.execute(status -> createEvent(PARTICIPANT_LIMIT));
+        // Бронь без строки заявки: пересчёт по participation_requests обнулил бы счётчик
+        int reserved = transactionTemplate.execute(status -> eventRepository.reserveSeats(eventId, 5));
+        assertEquals(5, reserved);
+
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+
+        assertEquals(5L, eventRepository.findById(eventId).orElseThrow().getConfirmedRequests());
+    }
+
+    private Long createEvent(int participantLimit) {
+        String suffix = String.valueOf(System.nanoTime());
+        User initiator = userRepository.save(new User(null, "User " + suffix, "user" + suffix + "@example.com"));
+        Category category = categoryRepository.save(new Category(null, "Category " + suffix));
+        return eventRepository.save(Event.builder()
+                .title("Event")
+                .annotation("Annotation")
+                .description("Description")
+                .category(category)
+                .initiator(initiator)
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .createdOn(LocalDateTime.now())
+                .location(new Location(55.75f, 37.62f))
+                .paid(false)
+                .participantLimit(participantLimit)
+                .requestModeration(true)
+                .state(EventState.PUBLISHED)
+                .build()).getId();
+    }
+}
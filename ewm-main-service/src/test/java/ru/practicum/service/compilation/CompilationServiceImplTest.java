@@ -5,8 +5,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import ru.practicum.dto.compilation.CompilationDto;
 import ru.practicum.dto.event.EventShortDto;
 import ru.practicum.mapper.CompilationMapper;
@@ -15,13 +15,19 @@ import ru.practicum.model.Compilation;
 import ru.practicum.model.Event;
 import ru.practicum.repository.compilation.CompilationRepository;
 import ru.practicum.repository.event.EventRepository;
+import ru.practicum.service.event.ViewCountCache;
+import ru.practicum.service.event.ViewCountLoader;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,10 +45,19 @@ class CompilationServiceImplTest {
     @Mock
     private EventMapper eventMapper;
 
+    @Mock
+    private ViewCountLoader viewCountLoader;
+
+    @Mock
+    private ViewCountCache viewCountCache;
+
+    @Mock
+    private PinnedCompilationCache pinnedCompilationCache;
+
     @InjectMocks
     private CompilationServiceImpl compilationService;
 
-    private final Event testEvent = new Event();
+    private final Event testEvent = Event.builder().id(5L).confirmedRequests(3L).build();
     private final EventShortDto testEventShortDto = EventShortDto.builder().build();
     private final Compilation testCompilation = Compilation.builder()
             .id(1L)
@@ -60,7 +75,7 @@ class CompilationServiceImplTest {
 
     @Test
     void findAll_shouldReturnPinnedCompilations() {
-        PageRequest page = PageRequest.of(0, 10);
+        PageRequest page = PageRequest.of(0, 10, Sort.by("id"));
         Compilation pinnedCompilation = Compilation.builder()
                 .id(2L)
                 .title("Pinned Compilation")
@@ -68,7 +83,10 @@ class CompilationServiceImplTest {
                 .events(Set.of())
                 .build();
 
-        when(compilationRepository.findAll(page)).thenReturn(new PageImpl<>(List.of(testCompilation, pinnedCompilation)));
+        when(pinnedCompilationCache.get(eq(0), eq(10), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<List<CompilationDto>>>getArgument(2).get());
+        when(compilationRepository.findPageIdsByPinned(true, page)).thenReturn(List.of(1L, 2L));
+        when(compilationRepository.findAllByIdIn(List.of(1L, 2L))).thenReturn(List.of(pinnedCompilation, testCompilation));
         when(eventMapper.toEventShortDto(any(), anyLong(), anyLong())).thenReturn(testEventShortDto);
         when(compilationMapper.toCompilationDto(eq(testCompilation), any())).thenReturn(testCompilationDto);
         when(compilationMapper.toCompilationDto(eq(pinnedCompilation), any())).thenReturn(
@@ -85,9 +103,20 @@ class CompilationServiceImplTest {
         assertTrue(result.stream().allMatch(CompilationDto::getPinned));
     }
 
+    @Test
+    void findAll_shouldNotCacheUnpinnedPages() {
+        PageRequest page = PageRequest.of(0, 10, Sort.by("id"));
+        when(compilationRepository.findPageIdsByPinned(false, page)).thenReturn(List.of());
+
+        List<CompilationDto> result = compilationService.findAll(false, 0, 10);
+
+        assertTrue(result.isEmpty());
+        verify(pinnedCompilationCache, never()).get(anyInt(), anyInt(), any());
+    }
+
     @Test
     void findById_shouldReturnCompilationWithEvents() {
-        when(compilationRepository.findById(1L)).thenReturn(Optional.of(testCompilation));
+        when(compilationRepository.findWithEventsById(1L)).thenReturn(Optional.of(testCompilation));
         when(eventMapper.toEventShortDto(any(), anyLong(), anyLong())).thenReturn(testEventShortDto);
         when(compilationMapper.toCompilationDto(any(), any())).thenReturn(testCompilationDto);
 
@@ -100,4 +129,17 @@ class CompilationServiceImplTest {
         assertEquals(1, result.getEvents().size());
         assertEquals(testEventShortDto, result.getEvents().get(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findById_shouldMapEventsWithConfirmedRequestsAndViews() {
+        when(compilationRepository.findWithEventsById(1L)).thenReturn(Optional.of(testCompilation));
+        when(viewCountCache.getAll(eq(List.of(5L)), any())).thenReturn(Map.of(5L, 42L));
+        when(eventMapper.toEventShortDto(testEvent, 3L, 42L)).thenReturn(testEventShortDto);
+        when(compilationMapper.toCompilationDto(testCompilation, List.of(testEventShortDto))).thenReturn(testCompilationDto);
+
+        CompilationDto result = compilationService.findById(1L);
+
+        assertEquals(testCompilationDto, result);
+        verify(eventMapper).toEventShortDto(testEvent, 3L, 42L);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.service.compilation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.dto.compilation.CompilationDto;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PinnedCompilationCacheTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<CompilationDto> page = List.of(CompilationDto.builder().id(1L).pinned(true).build());
+
+    @Test
+    void get_shouldLoadEachPageOnce() {
+        PinnedCompilationCache cache = new PinnedCompilationCache(16, 60_000, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(0, 10, () -> {
+            loads.incrementAndGet();
+            return page;
+        });
+        List<CompilationDto> cached = cache.get(0, 10, () -> {
+            loads.incrementAndGet();
+            return page;
+        });
+        cache.get(10, 10, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        assertEquals(page, cached);
+        assertEquals(2, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void invalidate_shouldForceReload() {
+        PinnedCompilationCache cache = new PinnedCompilationCache(16, 60_000, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(0, 10, () -> {
+            loads.incrementAndGet();
+            return page;
+        });
+        cache.invalidate();
+        cache.get(0, 10, () -> {
+            loads.incrementAndGet();
+            return page;
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_shouldNotStorePageLoadedBeforeInvalidation() {
+        PinnedCompilationCache cache = new PinnedCompilationCache(16, 60_000, meterRegistry);
+
+        cache.get(0, 10, () -> {
+            cache.invalidate();
+            return page;
+        });
+
+        assertEquals(0, cache.size());
+    }
+}
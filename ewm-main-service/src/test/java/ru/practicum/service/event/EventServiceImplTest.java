@@ -1,5 +1,6 @@
 package ru.practicum.service.event;
 
+import jakarta.persistence.EntityManager;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,11 +25,14 @@ import ru.practicum.repository.user.UserRepository;
 import ru.practicum.stats_client.StatsClient;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -50,12 +54,24 @@ class EventServiceImplTest {
     @Mock
     private StatsClient statsClient;
 
+    @Mock
+    private ViewCountLoader viewCountLoader;
+
+    @Mock
+    private ViewCountCache viewCountCache;
+
+    @Mock
+    private EventViewsSynchronizer eventViewsSynchronizer;
+
     @Mock
     private EventMapper eventMapper;
 
     @Mock
     private RequestMapper requestMapper;
 
+    @Mock
+    private EntityManager entityManager;
+
     @Mock
     private HttpServletRequest httpServletRequest;
 
@@ -165,7 +181,38 @@ class EventServiceImplTest {
         EventFullDto result = eventService.getPublicEventById(1L, httpServletRequest);
 
         assertNotNull(result);
-        verify(statsClient).saveHit(any(EndpointHit.class));
+        verify(statsClient).saveHitAsync(any(EndpointHit.class));
+        verify(statsClient, never()).saveHit(any(EndpointHit.class));
+        verify(viewCountCache).increment(eq(1L), any());
+        verify(eventViewsSynchronizer).markViewed(1L);
+    }
+
+    @Test
+    void getPublicEventById_shouldCountOwnViewLocally() {
+        testEvent.setState(EventState.PUBLISHED);
+
+        when(eventRepository.findByIdAndState(1L, EventState.PUBLISHED)).thenReturn(Optional.of(testEvent));
+        when(viewCountCache.get(eq(1L), any())).thenReturn(0L);
+        when(viewCountCache.increment(eq(1L), any())).thenReturn(true);
+        when(eventMapper.toEventFullDto(any(), anyLong(), anyLong())).thenReturn(new EventFullDto());
+
+        eventService.getPublicEventById(1L, httpServletRequest);
+
+        verify(eventMapper).toEventFullDto(testEvent, testEvent.getConfirmedRequests(), 1L);
+    }
+
+    @Test
+    void getPublicEventById_shouldNotCountRepeatViewTwice() {
+        testEvent.setState(EventState.PUBLISHED);
+
+        when(eventRepository.findByIdAndState(1L, EventState.PUBLISHED)).thenReturn(Optional.of(testEvent));
+        when(viewCountCache.get(eq(1L), any())).thenReturn(3L);
+        when(viewCountCache.increment(eq(1L), any())).thenReturn(false);
+        when(eventMapper.toEventFullDto(any(), anyLong(), anyLong())).thenReturn(new EventFullDto());
+
+        eventService.getPublicEventById(1L, httpServletRequest);
+
+        verify(eventMapper).toEventFullDto(testEvent, testEvent.getConfirmedRequests(), 3L);
     }
 
     @Test
@@ -178,15 +225,44 @@ class EventServiceImplTest {
         assertNotNull(result);
     }
 
+    @Test
+    void exportEventRequests_shouldStreamAndDetachEachRequest() {
+        ParticipationRequest first = ParticipationRequest.builder().id(1L).status(RequestStatus.PENDING).build();
+        ParticipationRequest second = ParticipationRequest.builder().id(2L).status(RequestStatus.CONFIRMED).build();
+        ParticipationRequestDto firstDto = ParticipationRequestDto.builder().id(1L).build();
+        ParticipationRequestDto secondDto = ParticipationRequestDto.builder().id(2L).build();
+
+        when(eventRepository.existsByIdAndInitiatorId(1L, 1L)).thenReturn(true);
+        when(requestRepository.streamAllByEventId(1L)).thenReturn(Stream.of(first, second));
+        when(requestMapper.toParticipationRequestDto(first)).thenReturn(firstDto);
+        when(requestMapper.toParticipationRequestDto(second)).thenReturn(secondDto);
+
+        List<ParticipationRequestDto> exported = new ArrayList<>();
+        eventService.exportEventRequests(1L, 1L, exported::add);
+
+        assertEquals(List.of(firstDto, secondDto), exported);
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    void exportEventRequests_shouldThrowNotFoundForForeignEvent() {
+        when(eventRepository.existsByIdAndInitiatorId(1L, 2L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> eventService.exportEventRequests(2L, 1L, dto -> { }));
+        verify(requestRepository, never()).streamAllByEventId(anyLong());
+    }
+
     @Test
     void updateRequestStatuses_shouldConfirmRequests() {
-        Event event = Event.builder().participantLimit(10).build();
+        Event event = Event.builder().participantLimit(10).confirmedRequests(5L).build();
         ParticipationRequest request = new ParticipationRequest();
         request.setStatus(RequestStatus.PENDING);
 
         when(eventRepository.findByIdAndInitiatorId(1L, 1L)).thenReturn(Optional.of(event));
-        when(requestRepository.countByEventIdAndStatus(1L, RequestStatus.CONFIRMED)).thenReturn(5L);
         when(requestRepository.findAllByIdInAndEventId(any(), eq(1L))).thenReturn(List.of(request));
+        when(eventRepository.reserveSeats(1L, 1)).thenReturn(1);
+        when(requestRepository.updatePendingStatuses(any(), eq(RequestStatus.CONFIRMED))).thenReturn(1);
         when(requestMapper.toParticipationRequestDto(any())).thenReturn(new ParticipationRequestDto());
 
         EventRequestStatusUpdateRequest updateRequest = new EventRequestStatusUpdateRequest();
@@ -197,6 +273,73 @@ class EventServiceImplTest {
 
         assertFalse(result.getConfirmedRequests().isEmpty());
         assertTrue(result.getRejectedRequests().isEmpty());
+        verify(eventRepository).reserveSeats(1L, 1);
+        verify(requestRepository, never()).rejectPendingByEventId(anyLong());
+    }
+
+    @Test
+    void updateRequestStatuses_shouldRejectRequestsBeyondReservedSeats() {
+        Event event = Event.builder().participantLimit(10).confirmedRequests(8L).build();
+        List<ParticipationRequest> requests = List.of(
+                ParticipationRequest.builder().id(1L).status(RequestStatus.PENDING).build(),
+                ParticipationRequest.builder().id(2L).status(RequestStatus.PENDING).build(),
+                ParticipationRequest.builder().id(3L).status(RequestStatus.PENDING).build());
+
+        when(eventRepository.findByIdAndInitiatorId(1L, 1L)).thenReturn(Optional.of(event));
+        when(requestRepository.findAllByIdInAndEventId(any(), eq(1L))).thenReturn(requests);
+        when(eventRepository.reserveSeats(1L, 3)).thenReturn(1);
+        when(requestRepository.updatePendingStatuses(List.of(1L), RequestStatus.CONFIRMED)).thenReturn(1);
+        when(requestRepository.updatePendingStatuses(List.of(2L, 3L), RequestStatus.REJECTED)).thenReturn(2);
+        when(requestMapper.toParticipationRequestDto(any()))
+                .thenAnswer(invocation -> new ParticipationRequestDto());
+
+        EventRequestStatusUpdateRequest updateRequest = new EventRequestStatusUpdateRequest();
+        updateRequest.setRequestIds(List.of(1L, 2L, 3L));
+        updateRequest.setStatus("CONFIRMED");
+
+        EventRequestStatusUpdateResult result = eventService.updateRequestStatuses(1L, 1L, updateRequest);
+
+        assertEquals(1, result.getConfirmedRequests().size());
+        assertEquals("CONFIRMED", result.getConfirmedRequests().get(0).getStatus());
+        assertEquals(2, result.getRejectedRequests().size());
+        assertEquals("REJECTED", result.getRejectedRequests().get(0).getStatus());
+        verify(requestRepository).rejectPendingByEventId(1L);
+    }
+
+    @Test
+    void updateRequestStatuses_shouldThrowConflictWhenRequestChangedConcurrently() {
+        Event event = Event.builder().participantLimit(10).confirmedRequests(0L).build();
+        List<ParticipationRequest> requests = List.of(
+                ParticipationRequest.builder().id(1L).status(RequestStatus.PENDING).build(),
+                ParticipationRequest.builder().id(2L).status(RequestStatus.PENDING).build());
+
+        when(eventRepository.findByIdAndInitiatorId(1L, 1L)).thenReturn(Optional.of(event));
+        when(requestRepository.findAllByIdInAndEventId(any(), eq(1L))).thenReturn(requests);
+        when(requestRepository.updatePendingStatuses(List.of(1L, 2L), RequestStatus.REJECTED)).thenReturn(1);
+        when(requestMapper.toParticipationRequestDto(any()))
+                .thenAnswer(invocation -> new ParticipationRequestDto());
+
+        EventRequestStatusUpdateRequest updateRequest = new EventRequestStatusUpdateRequest();
+        updateRequest.setRequestIds(List.of(1L, 2L));
+        updateRequest.setStatus("REJECTED");
+
+        assertThrows(ConflictException.class, () -> eventService.updateRequestStatuses(1L, 1L, updateRequest));
+    }
+
+    @Test
+    void updateRequestStatuses_shouldThrowConflictWhenNoSeatsReserved() {
+        Event event = Event.builder().participantLimit(10).confirmedRequests(5L).build();
+        ParticipationRequest request = ParticipationRequest.builder().id(1L).status(RequestStatus.PENDING).build();
+
+        when(eventRepository.findByIdAndInitiatorId(1L, 1L)).thenReturn(Optional.of(event));
+        when(requestRepository.findAllByIdInAndEventId(any(), eq(1L))).thenReturn(List.of(request));
+        when(eventRepository.reserveSeats(1L, 1)).thenReturn(0);
+
+        EventRequestStatusUpdateRequest updateRequest = new EventRequestStatusUpdateRequest();
+        updateRequest.setRequestIds(List.of(1L));
+        updateRequest.setStatus("CONFIRMED");
+
+        assertThrows(ConflictException.class, () -> eventService.updateRequestStatuses(1L, 1L, updateRequest));
     }
 
     @Test
@@ -213,4 +356,62 @@ class EventServiceImplTest {
         assertFalse(result.isEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    void getPublicEventsByCursor_shouldReturnNextCursorForFullPage() {
+        Event second = Event.builder().id(2L).eventDate(testEvent.getEventDate()).build();
+        when(eventRepository.findPublicEventsAfter(any(), any(), any(), any(), any(), any(),
+                eq(EventSort.EVENT_DATE), isNull(), eq(2)))
+                .thenReturn(List.of(testEvent, second));
+        when(eventMapper.toEventShortDto(any(), anyLong(), anyLong())).thenReturn(new EventShortDto());
+
+        EventSlice<EventShortDto> result = eventService.getPublicEventsByCursor(
+                null, null, null, null, null, false, EventSort.EVENT_DATE, "", 2, httpServletRequest);
+
+        assertEquals(2, result.getItems().size());
+        EventCursor next = EventCursor.decode(result.getNextCursor(), EventSort.EVENT_DATE);
+        assertEquals(2L, next.getId());
+        assertEquals(testEvent.getEventDate(), next.getEventDate());
+    }
+
+    @Test
+    void getPublicEventsByCursor_shouldContinueAfterCursorAndStopOnLastPage() {
+        String cursor = new EventCursor(EventSort.VIEWS, null, 5L, 7L).encode();
+        when(eventRepository.findPublicEventsAfter(any(), any(), any(), any(), any(), any(),
+                eq(EventSort.VIEWS), argThat(c -> c.getViews() == 5L && c.getId() == 7L), eq(10)))
+                .thenReturn(List.of(testEvent));
+        when(eventMapper.toEventShortDto(any(), anyLong(), anyLong())).thenReturn(new EventShortDto());
+
+        EventSlice<EventShortDto> result = eventService.getPublicEventsByCursor(
+                null, null, null, null, null, false, EventSort.VIEWS, cursor, 10, httpServletRequest);
+
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getPublicEventsByCursor_shouldRejectInvalidCursor() {
+        String viewsCursor = new EventCursor(EventSort.VIEWS, null, 5L, 7L).encode();
+
+        assertThrows(ru.practicum.exception.IllegalArgumentException.class, () -> eventService.getPublicEventsByCursor(
+                null, null, null, null, null, false, EventSort.EVENT_DATE, "not-a-cursor", 10, httpServletRequest));
+        assertThrows(ru.practicum.exception.IllegalArgumentException.class, () -> eventService.getPublicEventsByCursor(
+                null, null, null, null, null, false, EventSort.EVENT_DATE, viewsCursor, 10, httpServletRequest));
+        assertThrows(ru.practicum.exception.IllegalArgumentException.class, () -> eventService.getPublicEventsByCursor(
+                "text", null, null, null, null, false, EventSort.RELEVANCE, "", 10, httpServletRequest));
+    }
+
+    @Test
+    void getUserEventsByCursor_shouldSeekAfterCursor() {
+        LocalDateTime date = LocalDateTime.of(2030, 1, 1, 12, 0);
+        String cursor = new EventCursor(EventSort.EVENT_DATE, date, null, 3L).encode();
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(eventRepository.findAllByInitiatorIdAfter(1L, date, 3L, PageRequest.ofSize(1)))
+                .thenReturn(List.of(testEvent));
+        when(eventMapper.toEventShortDto(any(), anyLong(), anyLong())).thenReturn(new EventShortDto());
+
+        EventSlice<EventShortDto> result = eventService.getUserEventsByCursor(1L, cursor, 1);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(1L, EventCursor.decode(result.getNextCursor(), EventSort.EVENT_DATE).getId());
+    }
+}
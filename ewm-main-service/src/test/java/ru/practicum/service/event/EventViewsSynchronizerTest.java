@@ -0,0 +1,115 @@
+package ru.practicum.service.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.repository.event.EventRepository;
+import ru.practicum.stats_client.StatsClientException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventViewsSynchronizerTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private ViewCountLoader viewCountLoader;
+
+    @InjectMocks
+    private EventViewsSynchronizer synchronizer;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(synchronizer, "batchSize", 2);
+        ReflectionTestUtils.setField(synchronizer, "fullSyncEveryRuns", 3);
+    }
+
+    @Test
+    void synchronize_shouldUpdateViewsPageByPage() {
+        when(eventRepository.findPublishedIdsAfter(0L, PageRequest.of(0, 2))).thenReturn(List.of(1L, 2L));
+        when(eventRepository.findPublishedIdsAfter(2L, PageRequest.of(0, 2))).thenReturn(List.of(5L));
+        when(eventRepository.findPublishedIdsAfter(5L, PageRequest.of(0, 2))).thenReturn(List.of());
+        when(viewCountLoader.loadAll(List.of(1L, 2L))).thenReturn(Map.of(1L, 10L));
+        when(viewCountLoader.loadAll(List.of(5L))).thenReturn(Map.of(5L, 3L));
+
+        synchronizer.synchronize();
+
+        verify(eventRepository).updateViews(Map.of(1L, 10L, 2L, 0L));
+        verify(eventRepository).updateViews(Map.of(5L, 3L));
+    }
+
+    @Test
+    void synchronize_shouldStopWhenStatsUnavailable() {
+        when(eventRepository.findPublishedIdsAfter(eq(0L), any())).thenReturn(List.of(1L));
+        when(viewCountLoader.loadAll(any())).thenThrow(new StatsClientException("stats unavailable"));
+
+        synchronizer.synchronize();
+
+        verify(eventRepository, never()).updateViews(anyMap());
+    }
+
+    @Test
+    void synchronize_shouldRefreshOnlyViewedEventsAfterFullPass() {
+        when(eventRepository.findPublishedIdsAfter(eq(0L), any())).thenReturn(List.of());
+        synchronizer.synchronize();
+
+        synchronizer.markViewed(7L);
+        when(viewCountLoader.loadAll(List.of(7L))).thenReturn(Map.of(7L, 4L));
+        synchronizer.synchronize();
+        synchronizer.synchronize();
+
+        verify(eventRepository, times(1)).findPublishedIdsAfter(eq(0L), any());
+        verify(eventRepository, times(1)).updateViews(Map.of(7L, 4L));
+    }
+
+    @Test
+    void synchronize_shouldBackOffAfterFailureAndRetryViewedEvents() {
+        when(eventRepository.findPublishedIdsAfter(eq(0L), any())).thenReturn(List.of());
+        synchronizer.synchronize();
+
+        synchronizer.markViewed(7L);
+        when(viewCountLoader.loadAll(List.of(7L)))
+                .thenThrow(new StatsClientException("stats unavailable"))
+                .thenReturn(Map.of(7L, 4L));
+        synchronizer.synchronize();
+        synchronizer.synchronize();
+
+        verify(viewCountLoader, times(1)).loadAll(List.of(7L));
+
+        synchronizer.synchronize();
+
+        verify(eventRepository).updateViews(Map.of(7L, 4L));
+    }
+
+    @Test
+    void synchronize_shouldRefreshUnviewedEventsOnPeriodicFullPass() {
+        when(eventRepository.findPublishedIdsAfter(0L, PageRequest.of(0, 2))).thenReturn(List.of(1L));
+        when(eventRepository.findPublishedIdsAfter(1L, PageRequest.of(0, 2))).thenReturn(List.of());
+        // Хиты события 1 приходят мимо этого экземпляра, markViewed для него не вызывается
+        when(viewCountLoader.loadAll(List.of(1L))).thenReturn(Map.of(1L, 5L), Map.of(1L, 8L));
+
+        for (int run = 0; run < 4; run++) {
+            synchronizer.synchronize();
+        }
+
+        verify(eventRepository, times(2)).findPublishedIdsAfter(0L, PageRequest.of(0, 2));
+        verify(eventRepository).updateViews(Map.of(1L, 5L));
+        verify(eventRepository).updateViews(Map.of(1L, 8L));
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.service.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ViewCountCacheTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void getAll_shouldLoadOnlyMissingEvents() {
+        ViewCountCache cache = new ViewCountCache(100, 60_000, meterRegistry);
+        List<List<Long>> requested = new ArrayList<>();
+
+        cache.getAll(List.of(1L, 2L), ids -> {
+            requested.add(List.copyOf(ids));
+            return Map.of(1L, 5L);
+        });
+        Map<Long, Long> views = cache.getAll(List.of(1L, 2L, 3L), ids -> {
+            requested.add(List.copyOf(ids));
+            return Map.of(3L, 7L);
+        });
+
+        assertEquals(Map.of(1L, 5L, 2L, 0L, 3L, 7L), views);
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L)), requested);
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count());
+        assertEquals(3.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void increment_shouldUpdateCachedCountOnly() {
+        ViewCountCache cache = new ViewCountCache(100, 60_000, meterRegistry);
+        cache.get(1L, id -> 10L);
+
+        cache.increment(1L, "192.168.0.1");
+        cache.increment(2L, "192.168.0.1");
+
+        assertEquals(11L, cache.get(1L, id -> 0L));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void increment_shouldCountRepeatViewFromSameIpOnce() {
+        ViewCountCache cache = new ViewCountCache(100, 60_000, meterRegistry);
+        cache.get(1L, id -> 10L);
+
+        assertTrue(cache.increment(1L, "192.168.0.1"));
+        assertFalse(cache.increment(1L, "192.168.0.1"));
+        assertTrue(cache.increment(1L, "192.168.0.2"));
+
+        assertEquals(12L, cache.get(1L, id -> 0L));
+    }
+
+    @Test
+    void increment_shouldDropEntryTrackingTooManyViewers() {
+        ViewCountCache cache = new ViewCountCache(100, 60_000, meterRegistry);
+        cache.get(1L, id -> 10L);
+
+        for (int i = 0; i <= 1_000; i++) {
+            cache.increment(1L, "10.0." + i / 256 + "." + i % 256);
+        }
+
+        assertEquals(0, cache.size());
+        assertEquals(1_011L, cache.get(1L, id -> 1_011L));
+    }
+
+    @Test
+    void get_shouldReloadExpiredEntry() throws InterruptedException {
+        ViewCountCache cache = new ViewCountCache(100, 1, meterRegistry);
+        cache.get(1L, id -> 10L);
+
+        Thread.sleep(5);
+
+        assertEquals(20L, cache.get(1L, id -> 20L));
+    }
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsedEntry() {
+        ViewCountCache cache = new ViewCountCache(2, 60_000, meterRegistry);
+        cache.get(1L, id -> 1L);
+        cache.get(2L, id -> 2L);
+        cache.get(1L, id -> 0L);
+        cache.get(3L, id -> 3L);
+
+        assertEquals(2, cache.size());
+        assertEquals(1.0, meterRegistry.get("cache.evictions").counter().count());
+        assertEquals(1L, cache.get(1L, id -> 0L));
+        assertEquals(0L, cache.get(2L, id -> 0L));
+    }
+}
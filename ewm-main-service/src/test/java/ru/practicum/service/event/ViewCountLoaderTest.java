@@ -0,0 +1,155 @@
+package ru.practicum.service.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+import ru.practicum.ViewStats;
+import ru.practicum.stats_client.StatsClient;
+import ru.practicum.stats_client.StatsClientException;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ViewCountLoaderTest {
+
+    private static final int MAX_HTTP_HEADER_SIZE = 8 * 1024;
+
+    @Mock
+    private StatsClient statsClient;
+
+    private ViewCountLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        loader = new ViewCountLoader(statsClient);
+        ReflectionTestUtils.setField(loader, "batchWindowMs", 200L);
+        ReflectionTestUtils.setField(loader, "maxBatchSize", 100);
+        ReflectionTestUtils.setField(loader, "timeoutMs", 5000L);
+        loader.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        loader.stop();
+    }
+
+    @Test
+    void load_shouldSendUncontendedLookupWithoutWaitingForWindow() {
+        ReflectionTestUtils.setField(loader, "batchWindowMs", 60_000L);
+        when(statsClient.getStats(any(), any(), anyList(), anyBoolean())).thenReturn(List.of(
+                new ViewStats("ewm-main-service", "/events/1", 10L)));
+
+        long started = System.nanoTime();
+        long views = loader.load(1L);
+
+        assertEquals(10L, views);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 1_000);
+    }
+
+    @Test
+    void load_shouldCoalesceLookupsArrivingWhileRequestIsInFlight() throws Exception {
+        // Окно длиннее таймаута: второй запрос обязан уйти по завершении первого
+        ReflectionTestUtils.setField(loader, "batchWindowMs", 60_000L);
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        when(statsClient.getStats(any(), any(), anyList(), anyBoolean())).thenAnswer(invocation -> {
+            List<String> uris = invocation.getArgument(2);
+            if (uris.contains("/events/1")) {
+                firstStarted.countDown();
+                releaseFirst.await();
+            }
+            return List.of(
+                    new ViewStats("ewm-main-service", "/events/1", 10L),
+                    new ViewStats("ewm-main-service", "/events/2", 20L));
+        });
+
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        CompletableFuture<Long> first = CompletableFuture.supplyAsync(() -> loader.load(1L), callers);
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<Long>> queued = LongStream.of(2L, 3L, 4L)
+                .mapToObj(id -> CompletableFuture.supplyAsync(() -> loader.load(id), callers))
+                .collect(Collectors.toList());
+        while (loader.pendingCount() < 3) {
+            Thread.sleep(5);
+        }
+        releaseFirst.countDown();
+
+        assertEquals(10L, first.join());
+        assertEquals(List.of(20L, 0L, 0L), queued.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+        callers.shutdown();
+        verify(statsClient, times(2)).getStats(any(), any(), anyList(), eq(true));
+        verify(statsClient).getStats(any(), any(), argThat(uris -> uris.size() == 3), eq(true));
+    }
+
+    @Test
+    void load_shouldPropagateStatsErrors() {
+        when(statsClient.getStats(any(), any(), anyList(), anyBoolean()))
+                .thenThrow(new StatsClientException("stats unavailable"));
+
+        assertThrows(StatsClientException.class, () -> loader.load(1L));
+    }
+
+    @Test
+    void loadAll_shouldSplitUrisToFitRequestLine() {
+        List<Long> eventIds = LongStream.range(10_000_000L, 10_000_500L).boxed().collect(Collectors.toList());
+        List<List<String>> requested = new CopyOnWriteArrayList<>();
+        when(statsClient.getStats(any(), any(), anyList(), anyBoolean())).thenAnswer(invocation -> {
+            List<String> uris = invocation.getArgument(2);
+            requested.add(List.copyOf(uris));
+            return List.of(new ViewStats("ewm-main-service", uris.get(0), 1L));
+        });
+
+        Map<Long, Long> views = loader.loadAll(eventIds);
+
+        assertEquals(5, requested.size());
+        assertEquals(5, views.size());
+        // Одним запросом эти URI превысили бы лимит Tomcat на заголовки (8 КБ), каждая порция укладывается
+        assertTrue(requestLineLength(requested.stream().flatMap(List::stream).collect(Collectors.toList()))
+                > MAX_HTTP_HEADER_SIZE);
+        requested.forEach(uris -> assertTrue(requestLineLength(uris) < MAX_HTTP_HEADER_SIZE));
+    }
+
+    @Test
+    void loadAll_shouldReturnEmptyMapWithoutRequestForNoEvents() {
+        assertEquals(0, loader.loadAll(List.of()).size());
+    }
+
+    private static int requestLineLength(List<String> uris) {
+        URI uri = UriComponentsBuilder.fromHttpUrl("http://stats-server:9090/stats")
+                .queryParam("start", "2024-01-01 00:00:00")
+                .queryParam("end", "2025-01-01 00:00:00")
+                .queryParam("unique", true)
+                .queryParam("approximate", false)
+                .queryParam("uris", String.join(",", uris))
+                .build()
+                .toUri();
+        return ("GET " + uri.getRawPath() + "?" + uri.getRawQuery() + " HTTP/1.1").length();
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import ru.practicum.dto.participationRequest.ParticipationRequestDto;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.NotFoundException;
@@ -77,11 +79,21 @@ class RequestServiceImplTest {
         assertEquals(testRequestDto, result.get(0));
     }
 
+    @Test
+    void getUserRequests_shouldReturnRequestedPage() {
+        when(requestRepository.findAllByRequesterId(1L, PageRequest.of(2, 5, Sort.by("id"))))
+                .thenReturn(List.of(testRequest));
+        when(requestMapper.toParticipationRequestDto(testRequest)).thenReturn(testRequestDto);
+
+        List<ParticipationRequestDto> result = requestService.getUserRequests(1L, 10, 5);
+
+        assertEquals(List.of(testRequestDto), result);
+    }
+
     @Test
     void createRequest_shouldCreateNewRequest() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
-        when(requestRepository.countByEventIdAndStatus(1L, RequestStatus.PENDING)).thenReturn(5L);
         when(requestRepository.existsByRequesterIdAndEventId(1L, 1L)).thenReturn(false);
         when(requestMapper.toParticipationRequestDto(any())).thenReturn(testRequestDto);
 
@@ -89,6 +101,7 @@ class RequestServiceImplTest {
 
         assertNotNull(result);
         verify(requestRepository).save(any());
+        verify(eventRepository, never()).reserveSeats(anyLong(), anyInt());
     }
 
     @Test
@@ -114,10 +127,10 @@ class RequestServiceImplTest {
     @Test
     void createRequest_shouldThrowConflictWhenLimitReached() {
         testEvent.setParticipantLimit(5);
+        testEvent.setConfirmedRequests(5L);
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
-        when(requestRepository.countByEventIdAndStatus(1L, RequestStatus.PENDING)).thenReturn(5L);
 
         assertThrows(ConflictException.class, () -> requestService.createRequest(1L, 1L));
     }
@@ -138,12 +151,14 @@ class RequestServiceImplTest {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
         when(requestRepository.existsByRequesterIdAndEventId(1L, 1L)).thenReturn(false);
+        when(eventRepository.reserveSeats(1L, 1)).thenReturn(1);
         when(requestMapper.toParticipationRequestDto(any())).thenReturn(testRequestDto);
 
         ParticipationRequestDto result = requestService.createRequest(1L, 1L);
 
         assertNotNull(result);
         verify(requestRepository).save(argThat(req -> req.getStatus() == RequestStatus.CONFIRMED));
+        verify(eventRepository).reserveSeats(1L, 1);
     }
 
     @Test
@@ -0,0 +1,62 @@
+package ru.practicum.stats.bench;
+
+import ru.practicum.EndpointHit;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Reproducible stream of hits whose URI popularity follows a Zipf
+ * distribution: the URI of rank {@code k} is requested with a probability
+ * proportional to {@code 1 / k^skew}, so a handful of events receive most of
+ * the traffic, as on the public event listings.
+ */
+public class HitGenerator {
+    public static final String APP = "ewm-main-service";
+
+    private final double[] cumulative;
+    private final int ips;
+    private final Random random;
+
+    public HitGenerator(int uris, double skew, int ips, long seed) {
+        if (uris <= 0 || ips <= 0) {
+            throw new IllegalArgumentException("URI and IP counts must be positive");
+        }
+        this.cumulative = new double[uris];
+        this.ips = ips;
+        this.random = new Random(seed);
+
+        double sum = 0;
+        for (int rank = 1; rank <= uris; rank++) {
+            sum += 1 / Math.pow(rank, skew);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < uris; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    /**
+     * The URI of the given popularity rank, starting from 1.
+     */
+    public static String uri(int rank) {
+        return "/events/" + rank;
+    }
+
+    public EndpointHit next(LocalDateTime timestamp) {
+        return new EndpointHit(APP, uri(nextRank()), nextIp(), timestamp);
+    }
+
+    int nextRank() {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        // binarySearch возвращает -(точка вставки) - 1 для отсутствующего значения
+        int rank = index >= 0 ? index + 1 : -index;
+        return Math.min(rank, cumulative.length);
+    }
+
+    private String nextIp() {
+        int ip = random.nextInt(ips);
+        return "10." + (ip >>> 16 & 0xFF) + "." + (ip >>> 8 & 0xFF) + "." + (ip & 0xFF);
+    }
+}
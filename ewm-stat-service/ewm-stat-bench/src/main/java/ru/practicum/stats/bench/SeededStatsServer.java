@@ -0,0 +1,107 @@
+package ru.practicum.stats.bench;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.EndpointHit;
+import ru.practicum.ExmStatServer;
+import ru.practicum.stats.service.HitPartitionMaintenance;
+import ru.practicum.stats.service.StatsServiceImpl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stats server context without the web layer, backed by a database holding
+ * a fixed number of generated hits. Hits are ingested through
+ * {@link StatsServiceImpl#saveHits}, so rollups and sketches match them
+ * exactly as in production.
+ *
+ * <p>By default every data set gets its own H2 file under
+ * {@code target/bench-db}, seeded once and reused by later runs. The
+ * {@code stats.bench.db.url}, {@code stats.bench.db.username} and
+ * {@code stats.bench.db.password} system properties point the benchmark at
+ * another database, for example a local PostgreSQL.
+ */
+@Slf4j
+public class SeededStatsServer implements AutoCloseable {
+    /**
+     * Seeded hits lie in the {@link #SEED_PERIOD} before this moment; hits
+     * saved by the benchmarks themselves are stamped with the current time.
+     */
+    public static final LocalDateTime SEED_END = LocalDateTime.of(2024, 1, 1, 0, 0);
+    public static final Duration SEED_PERIOD = Duration.ofDays(30);
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final int IPS = 100_000;
+    private static final long SEED = 42;
+
+    private static final String COUNT_SEEDED_SQL = "SELECT COUNT(*) FROM endpoint_hit_log WHERE timestamp < ?";
+
+    private final ConfigurableApplicationContext context;
+
+    public SeededStatsServer(int hits, int uris, double skew) {
+        String url = System.getProperty("stats.bench.db.url",
+                "jdbc:h2:file:./target/bench-db/stats-" + hits + "-" + uris + "-" + skew + ";MODE=PostgreSQL");
+        boolean postgres = DatabaseDriver.fromJdbcUrl(url) == DatabaseDriver.POSTGRESQL;
+
+        // Аргументы командной строки перекрывают application.properties сервера
+        context = new SpringApplicationBuilder(ExmStatServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.driver-class-name=" + DatabaseDriver.fromJdbcUrl(url).getDriverClassName(),
+                        "--spring.datasource.username=" + System.getProperty("stats.bench.db.username", "sa"),
+                        "--spring.datasource.password=" + System.getProperty("stats.bench.db.password", ""),
+                        "--spring.jpa.database-platform=org.hibernate.dialect."
+                                + (postgres ? "PostgreSQLDialect" : "H2Dialect"),
+                        "--spring.sql.init.platform=" + (postgres ? "postgres" : "h2"),
+                        "--spring.jpa.show-sql=false",
+                        "--stats.cache.enabled=false",
+                        "--logging.level.ru.practicum=WARN");
+
+        seed(hits, uris, skew);
+    }
+
+    public StatsServiceImpl getStatsService() {
+        return context.getBean(StatsServiceImpl.class);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private void seed(int hits, int uris, double skew) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Long seeded = jdbcTemplate.queryForObject(COUNT_SEEDED_SQL, Long.class, SEED_END);
+        if (seeded != null && seeded == hits) {
+            return;
+        }
+        if (seeded != null && seeded > 0) {
+            throw new IllegalStateException("Database holds " + seeded + " seeded hits instead of " + hits
+                    + ", use a fresh database");
+        }
+
+        log.warn("Seeding {} hits over {} URIs, skew {}", hits, uris, skew);
+        StatsServiceImpl statsService = getStatsService();
+        HitGenerator generator = new HitGenerator(uris, skew, IPS, SEED);
+        LocalDateTime start = SEED_END.minus(SEED_PERIOD);
+        long step = SEED_PERIOD.toNanos() / hits;
+        List<EndpointHit> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < hits; i++) {
+            batch.add(generator.next(start.plusNanos(step * i)));
+            if (batch.size() == BATCH_SIZE || i == hits - 1) {
+                statsService.saveHits(batch);
+                batch.clear();
+            }
+        }
+        // На PostgreSQL хиты прошлых периодов легли в default-секцию, обслуживание разносит их по секциям
+        context.getBean(HitPartitionMaintenance.class).maintain();
+        log.warn("Seeded {} hits", hits);
+    }
+}
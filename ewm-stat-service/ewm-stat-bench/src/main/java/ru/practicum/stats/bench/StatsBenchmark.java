@@ -0,0 +1,130 @@
+package ru.practicum.stats.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.ViewStats;
+import ru.practicum.stats.service.StatsServiceImpl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Throughput and latency percentiles (SampleTime reports p0.99) of the
+ * {@code /stats} read path and hit ingestion in {@link StatsServiceImpl}.
+ *
+ * <p>Run with {@code java -jar target/benchmarks.jar StatsBenchmark}; the
+ * data set is chosen with JMH parameters, e.g.
+ * {@code -p hits=100000000 -p skew=1.2}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatsBenchmark {
+    @Param({"1000000"})
+    private int hits;
+
+    @Param({"10000"})
+    private int uris;
+
+    @Param({"1.0"})
+    private double skew;
+
+    /**
+     * Length of the requested window; windows end mid-hour so that both the
+     * rollups and the raw edge queries are exercised.
+     */
+    @Param({"HOUR", "DAY", "MONTH"})
+    private Window window;
+
+    /**
+     * How many of the most popular URIs a request asks for.
+     */
+    @Param({"10"})
+    private int requestedUris;
+
+    private SeededStatsServer server;
+    private StatsServiceImpl statsService;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private List<String> requested;
+
+    public enum Window {
+        HOUR(Duration.ofHours(1)),
+        DAY(Duration.ofDays(1)),
+        MONTH(Duration.ofDays(30));
+
+        private final Duration length;
+
+        Window(Duration length) {
+            this.length = length;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Ingest {
+        private HitGenerator generator;
+
+        @Setup(Level.Trial)
+        public void setUp(StatsBenchmark benchmark) {
+            generator = new HitGenerator(benchmark.uris, benchmark.skew, 100_000, Thread.currentThread().threadId());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = new SeededStatsServer(hits, uris, skew);
+        statsService = server.getStatsService();
+        end = SeededStatsServer.SEED_END.minusMinutes(30);
+        start = end.minus(window.length);
+        requested = IntStream.rangeClosed(1, Math.min(requestedUris, uris))
+                .mapToObj(HitGenerator::uri)
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<ViewStats> getStats() {
+        return statsService.getStats(start, end, requested, false, false);
+    }
+
+    @Benchmark
+    public List<ViewStats> getStatsForAllUris() {
+        return statsService.getStats(start, end, null, false, false);
+    }
+
+    @Benchmark
+    public List<ViewStats> getUniqueStats() {
+        return statsService.getStats(start, end, requested, true, false);
+    }
+
+    @Benchmark
+    public List<ViewStats> getApproximateUniqueStats() {
+        return statsService.getStats(start, end, requested, true, true);
+    }
+
+    @Benchmark
+    public void saveHit(Ingest ingest) {
+        statsService.saveHit(ingest.generator.next(LocalDateTime.now()));
+    }
+}
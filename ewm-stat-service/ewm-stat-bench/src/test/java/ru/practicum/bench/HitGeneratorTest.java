@@ -0,0 +1,43 @@
+package ru.practicum.bench;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.EndpointHit;
+import ru.practicum.stats.bench.HitGenerator;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HitGeneratorTest {
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2023, 12, 1, 12, 0);
+
+    @Test
+    void next_shouldFavourPopularUris() {
+        HitGenerator generator = new HitGenerator(1000, 1.0, 100, 1);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            counts.merge(generator.next(TIMESTAMP).getUri(), 1, Integer::sum);
+        }
+
+        // При skew = 1 первая по популярности страница получает около 13% хитов
+        int top = counts.get(HitGenerator.uri(1));
+        assertTrue(top > 11_000 && top < 16_000, "top URI hits: " + top);
+        assertTrue(top > 5 * counts.getOrDefault(HitGenerator.uri(10), 0));
+    }
+
+    @Test
+    void next_shouldBeReproducibleForSameSeed() {
+        HitGenerator first = new HitGenerator(100, 1.2, 1000, 7);
+        HitGenerator second = new HitGenerator(100, 1.2, 1000, 7);
+
+        for (int i = 0; i < 100; i++) {
+            EndpointHit hit = first.next(TIMESTAMP);
+            assertEquals(hit, second.next(TIMESTAMP));
+            assertEquals(HitGenerator.APP, hit.getApp());
+            assertEquals(TIMESTAMP, hit.getTimestamp());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.stats_client;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.EndpointHit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Bounded in-memory buffer of hits that are sent to the stats server in batches
+ * from a background thread, either when {@code batchSize} hits are pending or
+ * every {@code flushInterval}, whichever comes first.
+ */
+@Slf4j
+public class HitBuffer {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final BlockingQueue<EndpointHit> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final HitOverflowPolicy overflowPolicy;
+    private final Consumer<List<EndpointHit>> sender;
+    private final ScheduledExecutorService executor;
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public HitBuffer(int capacity,
+                     int batchSize,
+                     Duration flushInterval,
+                     HitOverflowPolicy overflowPolicy,
+                     Consumer<List<EndpointHit>> sender) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.overflowPolicy = overflowPolicy;
+        this.sender = sender;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-hit-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        long intervalMillis = flushInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void add(EndpointHit hit) {
+        if (!queue.offer(hit)) {
+            switch (overflowPolicy) {
+                case DROP_NEWEST -> {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                case DROP_OLDEST -> {
+                    while (!queue.offer(hit)) {
+                        if (queue.poll() != null) {
+                            dropped.incrementAndGet();
+                        }
+                    }
+                }
+                case SEND_SYNC -> {
+                    send(List.of(hit));
+                    return;
+                }
+                default -> throw new IllegalStateException("Unknown overflow policy: " + overflowPolicy);
+            }
+        }
+        queued.incrementAndGet();
+
+        if (queue.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+    }
+
+    public HitBufferStats getStats() {
+        return new HitBufferStats(queued.get(), flushed.get(), dropped.get(), queue.size());
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        log.info("Hit buffer stopped: {}", getStats());
+    }
+
+    synchronized void flush() {
+        List<EndpointHit> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            send(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    private void send(List<EndpointHit> batch) {
+        try {
+            sender.accept(batch);
+            flushed.addAndGet(batch.size());
+        } catch (Exception e) {
+            dropped.addAndGet(batch.size());
+            log.error("Error sending {} hits: {}", batch.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.stats_client;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HitBufferStats {
+    private long queued;
+    private long flushed;
+    private long dropped;
+    private int pending;
+}
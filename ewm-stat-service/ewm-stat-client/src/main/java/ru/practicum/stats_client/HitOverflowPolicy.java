@@ -0,0 +1,19 @@
+package ru.practicum.stats_client;
+
+/**
+ * What {@link HitBuffer} does with a hit when the buffer is full.
+ */
+public enum HitOverflowPolicy {
+    /**
+     * Discard the incoming hit.
+     */
+    DROP_NEWEST,
+    /**
+     * Discard the oldest buffered hit to make room for the incoming one.
+     */
+    DROP_OLDEST,
+    /**
+     * Send the incoming hit synchronously from the caller thread (backpressure).
+     */
+    SEND_SYNC
+}
@@ -9,5 +9,9 @@ import java.util.List;
 public interface StatsClient {
     void saveHit(EndpointHit hit);
 
+    void saveHitAsync(EndpointHit hit);
+
+    HitBufferStats getHitBufferStats();
+
     List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique);
 }
\ No newline at end of file
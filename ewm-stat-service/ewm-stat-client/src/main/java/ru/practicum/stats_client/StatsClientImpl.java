@@ -1,5 +1,11 @@
 package ru.practicum.stats_client;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,9 +20,11 @@ import ru.practicum.EndpointHit;
 import ru.practicum.ViewStats;
 
 import java.net.URI;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Slf4j
 @Component
@@ -26,18 +34,60 @@ public class StatsClientImpl implements StatsClient {
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME_PATTERN);
 
     private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
 
     @Value("${stats.client.base-url:http://localhost:9090}")
     private String serverUrl;
 
+    @Value("${stats.client.buffer.capacity:10000}")
+    private int bufferCapacity;
+
+    @Value("${stats.client.buffer.batch-size:100}")
+    private int bufferBatchSize;
+
+    @Value("${stats.client.buffer.flush-interval-ms:1000}")
+    private long bufferFlushIntervalMs;
+
+    @Value("${stats.client.buffer.overflow-policy:DROP_OLDEST}")
+    private HitOverflowPolicy bufferOverflowPolicy;
+
+    @Value("${stats.client.approximate-unique:false}")
+    private boolean approximateUnique;
+
+    private HitBuffer hitBuffer;
+
+    @PostConstruct
+    public void startHitBuffer() {
+        hitBuffer = new HitBuffer(
+                bufferCapacity,
+                bufferBatchSize,
+                Duration.ofMillis(bufferFlushIntervalMs),
+                bufferOverflowPolicy,
+                this::sendHits
+        );
+        hitBuffer.start();
+
+        Gauge.builder("stats.client.buffer.pending", hitBuffer, buffer -> buffer.getStats().getPending())
+                .register(meterRegistry);
+        FunctionCounter.builder("stats.client.buffer.flushed", hitBuffer, buffer -> buffer.getStats().getFlushed())
+                .register(meterRegistry);
+        FunctionCounter.builder("stats.client.buffer.dropped", hitBuffer, buffer -> buffer.getStats().getDropped())
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stopHitBuffer() {
+        hitBuffer.shutdown();
+    }
+
     @Override
     public void saveHit(EndpointHit hit) {
         try {
-            restTemplate.postForEntity(
+            record("hit", () -> restTemplate.postForEntity(
                     serverUrl + "/hit",
                     hit,
                     Void.class
-            );
+            ));
             log.info("Hit successfully saved: {}", hit);
         } catch (HttpClientErrorException e) {
             log.error("Error saving hit: {}", e.getMessage());
@@ -45,6 +95,30 @@ public class StatsClientImpl implements StatsClient {
         }
     }
 
+    @Override
+    public void saveHitAsync(EndpointHit hit) {
+        hitBuffer.add(hit);
+    }
+
+    @Override
+    public HitBufferStats getHitBufferStats() {
+        return hitBuffer.getStats();
+    }
+
+    private void sendHits(List<EndpointHit> hits) {
+        try {
+            record("hits", () -> restTemplate.postForEntity(
+                    serverUrl + "/hits",
+                    hits,
+                    Void.class
+            ));
+            log.debug("Hits successfully saved: {}", hits.size());
+        } catch (HttpClientErrorException e) {
+            log.error("Error saving hits: {}", e.getMessage());
+            throw new StatsClientException("Error saving hits: " + e.getMessage());
+        }
+    }
+
     @Override
     public List<ViewStats> getStats(LocalDateTime start, LocalDateTime end,
                                     List<String> uris, boolean unique) {
@@ -53,7 +127,8 @@ public class StatsClientImpl implements StatsClient {
             UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(serverUrl + "/stats")
                     .queryParam("start", start.format(DATE_TIME_FORMATTER))
                     .queryParam("end", end.format(DATE_TIME_FORMATTER))
-                    .queryParam("unique", unique);
+                    .queryParam("unique", unique)
+                    .queryParam("approximate", approximateUnique);
 
             if (uris != null && !uris.isEmpty()) {
                 builder.queryParam("uris", String.join(",", uris));
@@ -63,12 +138,12 @@ public class StatsClientImpl implements StatsClient {
             URI uri = builder.build().toUri();
             log.debug("Requesting stats with URI: {}", uri);
 
-            ResponseEntity<List<ViewStats>> response = restTemplate.exchange(
+            ResponseEntity<List<ViewStats>> response = record("stats", () -> restTemplate.exchange(
                     uri,
                     HttpMethod.GET,
                     null,
-                    new ParameterizedTypeReference<>() {}
-            );
+                    new ParameterizedTypeReference<List<ViewStats>>() {}
+            ));
 
             return response.getBody();
         } catch (HttpClientErrorException e) {
@@ -79,4 +154,21 @@ public class StatsClientImpl implements StatsClient {
             throw new StatsClientException("Unexpected error getting stats: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // Время вызова stats-сервера с исходом, ошибки дополнительно считаются по типу исключения
+    private <T> T record(String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } catch (RuntimeException e) {
+            meterRegistry.counter("stats.client.errors",
+                    "operation", operation, "exception", e.getClass().getSimpleName()).increment();
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("stats.client.requests", "operation", operation, "outcome", outcome));
+        }
+    }
+}
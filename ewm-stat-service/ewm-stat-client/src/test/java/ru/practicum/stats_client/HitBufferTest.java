@@ -0,0 +1,153 @@
+package ru.practicum.stats_client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.EndpointHit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HitBufferTest {
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    private final List<List<EndpointHit>> batches = new CopyOnWriteArrayList<>();
+    private final List<Thread> senderThreads = new CopyOnWriteArrayList<>();
+    private HitBuffer buffer;
+
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.shutdown();
+        }
+    }
+
+    @Test
+    void add_shouldDropNewestWhenFull() {
+        buffer = new HitBuffer(2, 100, NEVER, HitOverflowPolicy.DROP_NEWEST, this::record);
+
+        buffer.add(hit(1));
+        buffer.add(hit(2));
+        buffer.add(hit(3));
+        buffer.flush();
+
+        assertEquals(List.of("/1", "/2"), sentUris());
+        assertStats(2, 2, 1, 0);
+    }
+
+    @Test
+    void add_shouldDropOldestWhenFull() {
+        buffer = new HitBuffer(2, 100, NEVER, HitOverflowPolicy.DROP_OLDEST, this::record);
+
+        buffer.add(hit(1));
+        buffer.add(hit(2));
+        buffer.add(hit(3));
+        buffer.flush();
+
+        assertEquals(List.of("/2", "/3"), sentUris());
+        assertStats(3, 2, 1, 0);
+    }
+
+    @Test
+    void add_shouldSendFromCallerWhenFullWithSendSync() {
+        buffer = new HitBuffer(2, 100, NEVER, HitOverflowPolicy.SEND_SYNC, this::record);
+
+        buffer.add(hit(1));
+        buffer.add(hit(2));
+        buffer.add(hit(3));
+
+        assertEquals(List.of(List.of(hit(3))), batches);
+        assertEquals(List.of(Thread.currentThread()), senderThreads);
+        assertStats(2, 1, 0, 2);
+    }
+
+    @Test
+    void add_shouldFlushFullBatchInBackground() throws InterruptedException {
+        CountDownLatch sent = new CountDownLatch(1);
+        buffer = new HitBuffer(100, 3, NEVER, HitOverflowPolicy.DROP_OLDEST, batch -> {
+            record(batch);
+            sent.countDown();
+        });
+        buffer.start();
+
+        buffer.add(hit(1));
+        buffer.add(hit(2));
+        buffer.add(hit(3));
+
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of(hit(1), hit(2), hit(3))), batches);
+        assertTrue(senderThreads.stream().noneMatch(thread -> thread == Thread.currentThread()));
+    }
+
+    @Test
+    void start_shouldFlushPartialBatchOnInterval() throws InterruptedException {
+        CountDownLatch sent = new CountDownLatch(1);
+        buffer = new HitBuffer(100, 100, Duration.ofMillis(50), HitOverflowPolicy.DROP_OLDEST, batch -> {
+            record(batch);
+            sent.countDown();
+        });
+        buffer.start();
+
+        buffer.add(hit(1));
+
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("/1"), sentUris());
+    }
+
+    @Test
+    void shutdown_shouldDrainPendingHits() {
+        buffer = new HitBuffer(100, 2, NEVER, HitOverflowPolicy.DROP_OLDEST, this::record);
+
+        buffer.add(hit(1));
+        buffer.shutdown();
+
+        assertEquals(List.of("/1"), sentUris());
+        assertStats(1, 1, 0, 0);
+        buffer = null;
+    }
+
+    @Test
+    void flush_shouldCountFailedBatchAsDropped() {
+        Consumer<List<EndpointHit>> failing = batch -> {
+            throw new StatsClientException("unavailable");
+        };
+        buffer = new HitBuffer(100, 2, NEVER, HitOverflowPolicy.DROP_OLDEST, failing);
+
+        buffer.add(hit(1));
+        buffer.flush();
+
+        assertStats(1, 0, 1, 0);
+    }
+
+    private void record(List<EndpointHit> batch) {
+        batches.add(List.copyOf(batch));
+        senderThreads.add(Thread.currentThread());
+    }
+
+    private List<String> sentUris() {
+        List<String> uris = new ArrayList<>();
+        batches.forEach(batch -> batch.forEach(hit -> uris.add(hit.getUri())));
+        return uris;
+    }
+
+    private void assertStats(long queued, long flushed, long dropped, int pending) {
+        assertEquals(new HitBufferStats(queued, flushed, dropped, pending), buffer.getStats());
+    }
+
+    private static EndpointHit hit(int id) {
+        return EndpointHit.builder()
+                .app("ewm-main-service")
+                .uri("/" + id)
+                .ip("192.168.0." + id)
+                .timestamp(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .build();
+    }
+}
@@ -32,12 +32,19 @@ public class StatsController {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    @PostMapping("/hits")
+    public ResponseEntity<Void> hits(@RequestBody List<@Valid EndpointHit> endpointHits) {
+        statsService.saveHits(endpointHits);
+        return ResponseEntity.status(HttpStatus.CREATED).build();
+    }
+
     @GetMapping("/stats")
     public ResponseEntity<List<ViewStats>> getStats(
             @RequestParam(required = false) String start,
             @RequestParam(required = false) String end,
             @RequestParam(required = false) List<String> uris,
-            @RequestParam(defaultValue = "false") Boolean unique) {
+            @RequestParam(defaultValue = "false") Boolean unique,
+            @RequestParam(defaultValue = "false") Boolean approximate) {
 
         if (start == null || end == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Start and end parameters are required");
@@ -59,6 +66,6 @@ public class StatsController {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Start date must be before end date");
         }
 
-        return ResponseEntity.ok(statsService.getStats(startDateTime, endDateTime, uris, unique));
+        return ResponseEntity.ok(statsService.getStats(startDateTime, endDateTime, uris, unique, approximate));
     }
 }
\ No newline at end of file
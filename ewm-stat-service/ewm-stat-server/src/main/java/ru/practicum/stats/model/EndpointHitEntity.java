@@ -1,6 +1,5 @@
 package ru.practicum.stats.model;
 
-import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,26 +7,22 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
-@Entity
-@Table(name = "endpoint_hits")
+/**
+ * A decoded row of {@code endpoint_hit_log}; see {@code StatsRepository} for
+ * the stored form.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class EndpointHitEntity {
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false)
     private String app;
 
-    @Column(nullable = false)
     private String uri;
 
-    @Column(nullable = false)
     private String ip;
 
-    @Column(nullable = false)
     private LocalDateTime timestamp;
-}
\ No newline at end of file
+}
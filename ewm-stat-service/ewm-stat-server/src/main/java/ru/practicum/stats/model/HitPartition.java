@@ -0,0 +1,87 @@
+package ru.practicum.stats.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A time range partition of {@code endpoint_hit_log} covering
+ * {@code from <= timestamp < to}. Both bounds are encoded in the table name,
+ * so partitions created with a different interval are still recognised.
+ */
+@Data
+@AllArgsConstructor
+public class HitPartition {
+    public static final String PARENT_TABLE = "endpoint_hit_log";
+    public static final String DEFAULT_PARTITION = PARENT_TABLE + "_default";
+
+    private static final DateTimeFormatter NAME_DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final Pattern NAME_PATTERN = Pattern.compile(PARENT_TABLE + "_p(\\d{8})_(\\d{8})");
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    public enum Interval {
+        DAY,
+        MONTH;
+
+        public LocalDateTime floor(LocalDateTime timestamp) {
+            LocalDateTime day = timestamp.truncatedTo(ChronoUnit.DAYS);
+            return this == DAY ? day : day.withDayOfMonth(1);
+        }
+
+        public LocalDateTime next(LocalDateTime start) {
+            return this == DAY ? start.plusDays(1) : start.plusMonths(1);
+        }
+    }
+
+    /**
+     * The partition of the given interval containing {@code timestamp} and
+     * the {@code ahead} partitions following it.
+     */
+    public static List<HitPartition> starting(LocalDateTime timestamp, Interval interval, int ahead) {
+        List<HitPartition> partitions = new ArrayList<>();
+        LocalDateTime from = interval.floor(timestamp);
+        for (int i = 0; i <= ahead; i++) {
+            LocalDateTime to = interval.next(from);
+            partitions.add(new HitPartition(from, to));
+            from = to;
+        }
+        return partitions;
+    }
+
+    /**
+     * Parses a partition table name, returning {@code null} for tables not
+     * created by the stats server (for example the default partition).
+     */
+    public static HitPartition parse(String tableName) {
+        Matcher matcher = NAME_PATTERN.matcher(tableName);
+        if (!matcher.matches()) {
+            return null;
+        }
+        try {
+            return new HitPartition(
+                    LocalDate.parse(matcher.group(1), NAME_DATE_FORMAT).atStartOfDay(),
+                    LocalDate.parse(matcher.group(2), NAME_DATE_FORMAT).atStartOfDay());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    public String getName() {
+        return PARENT_TABLE + "_p" + from.format(NAME_DATE_FORMAT) + "_" + to.format(NAME_DATE_FORMAT);
+    }
+
+    public boolean overlaps(HitPartition other) {
+        return from.isBefore(other.to) && other.from.isBefore(to);
+    }
+}
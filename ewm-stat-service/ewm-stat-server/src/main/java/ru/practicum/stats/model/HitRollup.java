@@ -0,0 +1,56 @@
+package ru.practicum.stats.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HitRollup {
+    public static final ChronoUnit BUCKET_UNIT = ChronoUnit.HOURS;
+
+    private String app;
+    private String uri;
+    private LocalDateTime bucketStart;
+    private Long hits;
+
+    public static LocalDateTime bucketOf(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(BUCKET_UNIT);
+    }
+
+    public static LocalDateTime ceilBucket(LocalDateTime timestamp) {
+        LocalDateTime bucket = bucketOf(timestamp);
+        return bucket.equals(timestamp) ? bucket : bucket.plus(1, BUCKET_UNIT);
+    }
+
+    /**
+     * Groups hits by app, uri and bucket. The result is sorted by key so that
+     * concurrent upserts lock rollup rows in the same order.
+     */
+    public static List<HitRollup> aggregate(Collection<EndpointHitEntity> hits) {
+        Map<HitRollup, Long> counts = hits.stream()
+                .collect(Collectors.groupingBy(
+                        hit -> new HitRollup(hit.getApp(), hit.getUri(), bucketOf(hit.getTimestamp()), null),
+                        Collectors.counting()));
+
+        return counts.entrySet().stream()
+                .map(entry -> new HitRollup(
+                        entry.getKey().getApp(),
+                        entry.getKey().getUri(),
+                        entry.getKey().getBucketStart(),
+                        entry.getValue()))
+                .sorted(Comparator.comparing(HitRollup::getUri)
+                        .thenComparing(HitRollup::getBucketStart)
+                        .thenComparing(HitRollup::getApp))
+                .collect(Collectors.toList());
+    }
+}
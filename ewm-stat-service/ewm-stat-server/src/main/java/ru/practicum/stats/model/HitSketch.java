@@ -0,0 +1,52 @@
+package ru.practicum.stats.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The unique-visitor sketch of an app and uri for one day.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HitSketch {
+    public static final ChronoUnit BUCKET_UNIT = ChronoUnit.DAYS;
+
+    private String app;
+    private String uri;
+    private LocalDateTime bucketStart;
+    private HyperLogLog sketch;
+
+    public static LocalDateTime bucketOf(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(BUCKET_UNIT);
+    }
+
+    public static LocalDateTime ceilBucket(LocalDateTime timestamp) {
+        LocalDateTime bucket = bucketOf(timestamp);
+        return bucket.equals(timestamp) ? bucket : bucket.plus(1, BUCKET_UNIT);
+    }
+
+    /**
+     * Builds one sketch per app, uri and bucket from the IPs of the hits.
+     */
+    public static List<HitSketch> aggregate(Collection<EndpointHitEntity> hits) {
+        Map<List<Object>, HitSketch> sketches = new LinkedHashMap<>();
+        for (EndpointHitEntity hit : hits) {
+            LocalDateTime bucketStart = bucketOf(hit.getTimestamp());
+            sketches.computeIfAbsent(List.of(hit.getApp(), hit.getUri(), bucketStart),
+                            key -> new HitSketch(hit.getApp(), hit.getUri(), bucketStart, new HyperLogLog()))
+                    .getSketch()
+                    .add(hit.getIp());
+        }
+        return new ArrayList<>(sketches.values());
+    }
+}
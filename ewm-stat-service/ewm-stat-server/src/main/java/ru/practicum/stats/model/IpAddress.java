@@ -0,0 +1,68 @@
+package ru.practicum.stats.model;
+
+import ru.practicum.stats.exception.ValidationException;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Binary form of the visitor IP stored in the hit log: 4 bytes for IPv4 and
+ * 16 bytes for IPv6. Only literals are accepted, host names are never resolved.
+ */
+public final class IpAddress {
+    private static final int IPV4_BYTES = 4;
+
+    private IpAddress() {
+    }
+
+    public static byte[] encode(String ip) {
+        if (ip == null || ip.isBlank()) {
+            throw new ValidationException("IP address cannot be blank");
+        }
+        if (ip.indexOf(':') < 0) {
+            return encodeIpv4(ip);
+        }
+        try {
+            // В квадратных скобках строка разбирается только как литерал IPv6, DNS не запрашивается
+            return InetAddress.getByName("[" + ip + "]").getAddress();
+        } catch (UnknownHostException | SecurityException e) {
+            throw new ValidationException("Invalid IP address: " + ip);
+        }
+    }
+
+    public static String decode(byte[] bytes) {
+        try {
+            return InetAddress.getByAddress(bytes).getHostAddress();
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Invalid IP address length: " + bytes.length, e);
+        }
+    }
+
+    /**
+     * The textual form {@link #decode} returns, so that unique-visitor hashes
+     * computed on ingest and on stored hits agree.
+     */
+    public static String normalize(String ip) {
+        return decode(encode(ip));
+    }
+
+    private static byte[] encodeIpv4(String ip) {
+        String[] parts = ip.split("\\.", -1);
+        if (parts.length != IPV4_BYTES) {
+            throw new ValidationException("Invalid IP address: " + ip);
+        }
+        byte[] bytes = new byte[IPV4_BYTES];
+        for (int i = 0; i < IPV4_BYTES; i++) {
+            String part = parts[i];
+            if (part.isEmpty() || part.length() > 3 || !part.chars().allMatch(c -> c >= '0' && c <= '9')) {
+                throw new ValidationException("Invalid IP address: " + ip);
+            }
+            int value = Integer.parseInt(part);
+            if (value > 255) {
+                throw new ValidationException("Invalid IP address: " + ip);
+            }
+            bytes[i] = (byte) value;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.stats.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import ru.practicum.EndpointHit;
+import ru.practicum.ViewStats;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Serves {@code /stats} reads through {@link StatsResultCache}. Recorded hits
+ * do not invalidate cached results: they show up once the entries expire.
+ */
+@Service
+@Primary
+@RequiredArgsConstructor
+@Timed("stats.service")
+public class CachingStatsService implements StatsService {
+    private final StatsServiceImpl statsService;
+    private final StatsResultCache resultCache;
+
+    @Override
+    public void saveHit(EndpointHit hit) {
+        statsService.saveHit(hit);
+    }
+
+    @Override
+    public void saveHits(List<EndpointHit> hits) {
+        statsService.saveHits(hits);
+    }
+
+    @Override
+    public List<ViewStats> getStats(LocalDateTime start,
+                                    LocalDateTime end,
+                                    List<String> uris,
+                                    boolean unique,
+                                    boolean approximate) {
+        return resultCache.get(start, end, uris, unique, approximate,
+                (loadStart, loadEnd, missingUris) ->
+                        statsService.getStats(loadStart, loadEnd, missingUris, unique, approximate));
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.stats.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.stats.service.HitDictionaryRepository.Dictionary;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory, two-way cache over the app and URI lookup tables. Ids never
+ * change once assigned, so entries need no expiry; a dictionary that
+ * outgrows the configured size is simply cleared and refilled on demand.
+ */
+@Component
+public class HitDictionary {
+    private final HitDictionaryRepository dictionaryRepository;
+    private final int maxSize;
+    private final Map<Dictionary, Map<String, Integer>> ids = new EnumMap<>(Dictionary.class);
+    private final Map<Dictionary, Map<Integer, String>> values = new EnumMap<>(Dictionary.class);
+
+    public HitDictionary(HitDictionaryRepository dictionaryRepository,
+                         @Value("${stats.dictionary.cache.max-size:100000}") int maxSize) {
+        this.dictionaryRepository = dictionaryRepository;
+        this.maxSize = maxSize;
+        for (Dictionary dictionary : Dictionary.values()) {
+            ids.put(dictionary, new ConcurrentHashMap<>());
+            values.put(dictionary, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Ids of the given values, adding the ones seen for the first time.
+     */
+    public Map<String, Integer> intern(Dictionary dictionary, Collection<String> names) {
+        Map<String, Integer> result = new HashMap<>();
+        List<String> missing = collectCached(dictionary, names, result);
+        if (!missing.isEmpty()) {
+            cache(dictionary, dictionaryRepository.intern(dictionary, missing), result);
+        }
+        return result;
+    }
+
+    /**
+     * Ids of the given values that are already known; unknown values are left out.
+     */
+    public Map<String, Integer> find(Dictionary dictionary, Collection<String> names) {
+        Map<String, Integer> result = new HashMap<>();
+        List<String> missing = collectCached(dictionary, names, result);
+        if (!missing.isEmpty()) {
+            cache(dictionary, dictionaryRepository.findIds(dictionary, missing), result);
+        }
+        return result;
+    }
+
+    public Map<Integer, String> resolve(Dictionary dictionary, Collection<Integer> keys) {
+        Map<Integer, String> cached = values.get(dictionary);
+        Map<Integer, String> result = new HashMap<>();
+        Set<Integer> missing = new LinkedHashSet<>();
+        for (Integer id : keys) {
+            String value = cached.get(id);
+            if (value != null) {
+                result.put(id, value);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<String, Integer> loaded = new HashMap<>();
+            dictionaryRepository.findValues(dictionary, missing).forEach((id, value) -> loaded.put(value, id));
+            cache(dictionary, loaded, new HashMap<>());
+            loaded.forEach((value, id) -> result.put(id, value));
+        }
+        return result;
+    }
+
+    private List<String> collectCached(Dictionary dictionary, Collection<String> names, Map<String, Integer> result) {
+        Map<String, Integer> cached = ids.get(dictionary);
+        Set<String> missing = new LinkedHashSet<>();
+        for (String name : names) {
+            Integer id = cached.get(name);
+            if (id != null) {
+                result.put(name, id);
+            } else {
+                missing.add(name);
+            }
+        }
+        return List.copyOf(missing);
+    }
+
+    private void cache(Dictionary dictionary, Map<String, Integer> loaded, Map<String, Integer> result) {
+        Map<String, Integer> cachedIds = ids.get(dictionary);
+        Map<Integer, String> cachedValues = values.get(dictionary);
+        if (cachedIds.size() + loaded.size() > maxSize) {
+            cachedIds.clear();
+            cachedValues.clear();
+        }
+        loaded.forEach((value, id) -> {
+            cachedIds.put(value, id);
+            cachedValues.put(id, value);
+        });
+        result.putAll(loaded);
+    }
+}
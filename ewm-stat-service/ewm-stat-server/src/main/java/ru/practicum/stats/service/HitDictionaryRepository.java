@@ -0,0 +1,96 @@
+package ru.practicum.stats.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lookup tables mapping apps and URIs to the integer ids stored in the hit log.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed("stats.repository")
+public class HitDictionaryRepository {
+    private static final int BATCH_SIZE = 500;
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Dictionary {
+        APPS("endpoint_hit_apps", "app", 255),
+        URIS("endpoint_hit_uris", "uri", 512);
+
+        private final String table;
+        private final String column;
+        private final int length;
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    /**
+     * Adds the missing values and returns the ids of all of them. Runs in its
+     * own transaction: ids handed out to the in-memory cache must stay valid
+     * even if the ingesting transaction rolls back.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Map<String, Integer> intern(Dictionary dictionary, Collection<String> values) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate(getInsertSql(dictionary), values, BATCH_SIZE,
+                (ps, value) -> ps.setString(1, value));
+        return findIds(dictionary, values);
+    }
+
+    public Map<String, Integer> findIds(Dictionary dictionary, Collection<String> values) {
+        Map<String, Integer> ids = new HashMap<>();
+        if (values.isEmpty()) {
+            return ids;
+        }
+        String sql = "SELECT id, " + dictionary.getColumn() + " FROM " + dictionary.getTable() +
+                " WHERE " + dictionary.getColumn() + " IN (:values)";
+        jdbcTemplate.query(sql, new MapSqlParameterSource("values", values), rs -> {
+            ids.put(rs.getString(2), rs.getInt(1));
+        });
+        return ids;
+    }
+
+    public Map<Integer, String> findValues(Dictionary dictionary, Collection<Integer> ids) {
+        Map<Integer, String> values = new HashMap<>();
+        if (ids.isEmpty()) {
+            return values;
+        }
+        String sql = "SELECT id, " + dictionary.getColumn() + " FROM " + dictionary.getTable() +
+                " WHERE id IN (:ids)";
+        jdbcTemplate.query(sql, new MapSqlParameterSource("ids", List.copyOf(ids)), rs -> {
+            values.put(rs.getInt(1), rs.getString(2));
+        });
+        return values;
+    }
+
+    private String getInsertSql(Dictionary dictionary) {
+        if (postgres == null) {
+            String product = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            postgres = POSTGRESQL.equals(product);
+        }
+        String table = dictionary.getTable();
+        String column = dictionary.getColumn();
+        return postgres
+                ? "INSERT INTO " + table + " (" + column + ") VALUES (?) ON CONFLICT (" + column + ") DO NOTHING"
+                : "MERGE INTO " + table + " d " +
+                "USING (VALUES (CAST(? AS VARCHAR(" + dictionary.getLength() + ")))) AS s (" + column + ") " +
+                "ON d." + column + " = s." + column + " " +
+                "WHEN NOT MATCHED THEN INSERT (" + column + ") VALUES (s." + column + ")";
+    }
+}
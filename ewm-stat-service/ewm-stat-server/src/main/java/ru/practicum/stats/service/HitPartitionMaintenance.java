@@ -0,0 +1,122 @@
+package ru.practicum.stats.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.stats.model.HitPartition;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Keeps {@code endpoint_hit_log} partitioned by time: range partitions are created
+ * ahead of the hits that will land in them, and partitions older than the
+ * retention period are dropped (or detached for archiving) as a whole. The
+ * {@code /stats} queries filter on {@code timestamp}, so PostgreSQL prunes the
+ * partitions outside the requested range. Retention trims the hourly rollups
+ * and daily sketches at the same boundary as the raw hits, so plain, exact
+ * unique and approximate unique counts keep covering the same period.
+ */
+@Component
+@Slf4j
+public class HitPartitionMaintenance {
+    public enum RetentionMode {
+        DROP,
+        DETACH
+    }
+
+    private final HitPartitionRepository partitionRepository;
+    private final HitRollupRepository rollupRepository;
+    private final HitSketchRepository sketchRepository;
+    private final HitPartition.Interval interval;
+    private final int premake;
+    private final int retentionDays;
+    private final RetentionMode retentionMode;
+
+    public HitPartitionMaintenance(HitPartitionRepository partitionRepository,
+                                   HitRollupRepository rollupRepository,
+                                   HitSketchRepository sketchRepository,
+                                   @Value("${stats.hits.partition.interval:MONTH}") HitPartition.Interval interval,
+                                   @Value("${stats.hits.partition.premake:2}") int premake,
+                                   @Value("${stats.hits.retention.days:0}") int retentionDays,
+                                   @Value("${stats.hits.retention.mode:DROP}") RetentionMode retentionMode) {
+        this.partitionRepository = partitionRepository;
+        this.rollupRepository = rollupRepository;
+        this.sketchRepository = sketchRepository;
+        this.interval = interval;
+        this.premake = premake;
+        this.retentionDays = retentionDays;
+        this.retentionMode = retentionMode;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!partitionRepository.isPartitioningSupported()) {
+            return;
+        }
+        // Секции создаются до приёма хитов, иначе текущие хиты осели бы в default
+        createPartitions(LocalDateTime.now());
+    }
+
+    @Scheduled(cron = "${stats.hits.partition.cron:0 15 0 * * *}")
+    public void maintain() {
+        LocalDateTime now = LocalDateTime.now();
+        if (partitionRepository.isPartitioningSupported()) {
+            createPartitions(now);
+        }
+        if (retentionDays > 0) {
+            applyRetention(now.minusDays(retentionDays));
+        }
+    }
+
+    void createPartitions(LocalDateTime now) {
+        partitionRepository.createDefaultPartition();
+        List<HitPartition> existing = new ArrayList<>(partitionRepository.findPartitions());
+
+        // Текущий и следующие периоды, а также периоды хитов, попавших в default
+        TreeSet<LocalDateTime> periods = new TreeSet<>();
+        HitPartition.starting(now, interval, premake).forEach(partition -> periods.add(partition.getFrom()));
+        partitionRepository.findDefaultPartitionDays().forEach(day -> periods.add(interval.floor(day)));
+
+        for (LocalDateTime from : periods) {
+            HitPartition partition = new HitPartition(from, interval.next(from));
+            if (existing.stream().anyMatch(partition::overlaps)) {
+                continue;
+            }
+            partitionRepository.createPartition(partition);
+            existing.add(partition);
+            log.info("Hit partition {} created", partition.getName());
+        }
+    }
+
+    void applyRetention(LocalDateTime cutoff) {
+        // Граница по началу секции: целые секции, агрегаты по часам и по дням обрезаются по одной дате
+        LocalDateTime boundary = interval.floor(cutoff);
+        if (!partitionRepository.isPartitioningSupported()) {
+            int deleted = partitionRepository.deleteHitsBefore(HitPartition.PARENT_TABLE, boundary);
+            log.info("Retention removed {} hits older than {}", deleted, boundary);
+        } else {
+            for (HitPartition partition : partitionRepository.findPartitions()) {
+                if (partition.getTo().isAfter(boundary)) {
+                    continue;
+                }
+                if (retentionMode == RetentionMode.DETACH) {
+                    partitionRepository.detachPartition(partition);
+                } else {
+                    partitionRepository.dropPartition(partition);
+                }
+                log.info("Retention {} hit partition {}", retentionMode == RetentionMode.DETACH ? "detached" : "dropped",
+                        partition.getName());
+            }
+            partitionRepository.deleteHitsBefore(HitPartition.DEFAULT_PARTITION, boundary);
+        }
+
+        int rollups = rollupRepository.deleteBucketsBefore(boundary);
+        int sketches = sketchRepository.deleteBucketsBefore(boundary);
+        log.info("Retention removed {} rollup buckets and {} sketch registers older than {}", rollups, sketches, boundary);
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.stats.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.stats.model.HitPartition;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+
+import static ru.practicum.stats.model.HitPartition.DEFAULT_PARTITION;
+import static ru.practicum.stats.model.HitPartition.PARENT_TABLE;
+
+/**
+ * Partition DDL for {@code endpoint_hit_log}. Native range partitioning is only
+ * available on PostgreSQL; on other databases the table stays a plain table
+ * and retention falls back to deleting rows.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HitPartitionRepository {
+    private static final String POSTGRESQL = "PostgreSQL";
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String SELECT_PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = ? AND p.relnamespace = to_regnamespace(current_schema())";
+
+    private static final String SELECT_DEFAULT_DAYS_SQL =
+            "SELECT DISTINCT DATE_TRUNC('day', timestamp) FROM " + DEFAULT_PARTITION;
+
+    private static final String DELETE_HITS_BEFORE_SQL = "DELETE FROM %s WHERE timestamp < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    public boolean isPartitioningSupported() {
+        if (postgres == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            postgres = POSTGRESQL.equals(product);
+        }
+        return postgres;
+    }
+
+    public void createDefaultPartition() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION +
+                " PARTITION OF " + PARENT_TABLE + " DEFAULT");
+    }
+
+    public List<HitPartition> findPartitions() {
+        return jdbcTemplate.queryForList(SELECT_PARTITIONS_SQL, String.class, PARENT_TABLE).stream()
+                .map(HitPartition::parse)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Days with hits in the default partition, i.e. not covered by any range
+     * partition yet.
+     */
+    public List<LocalDateTime> findDefaultPartitionDays() {
+        return jdbcTemplate.queryForList(SELECT_DEFAULT_DAYS_SQL, Timestamp.class).stream()
+                .map(Timestamp::toLocalDateTime)
+                .toList();
+    }
+
+    /**
+     * Creates a range partition, first moving the hits of its range out of the
+     * default partition: PostgreSQL refuses to attach a partition whose range
+     * still has rows in the default one.
+     */
+    @Transactional
+    public void createPartition(HitPartition partition) {
+        String name = partition.getName();
+        Timestamp from = Timestamp.valueOf(partition.getFrom());
+        Timestamp to = Timestamp.valueOf(partition.getTo());
+
+        // Блокировка не даёт вставкам попасть в default между переносом строк и ATTACH
+        jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN EXCLUSIVE MODE");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " (LIKE " + PARENT_TABLE + " INCLUDING DEFAULTS)");
+        jdbcTemplate.update("INSERT INTO " + name + " SELECT * FROM " + DEFAULT_PARTITION +
+                " WHERE timestamp >= ? AND timestamp < ?", from, to);
+        jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE timestamp >= ? AND timestamp < ?", from, to);
+        jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " ATTACH PARTITION " + name +
+                " FOR VALUES FROM ('" + partition.getFrom().format(BOUND_FORMAT) + "')" +
+                " TO ('" + partition.getTo().format(BOUND_FORMAT) + "')");
+    }
+
+    public void dropPartition(HitPartition partition) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition.getName());
+    }
+
+    /**
+     * Detaches a partition and keeps it as a standalone table, so it can be
+     * dumped to cold storage and dropped by hand.
+     */
+    public void detachPartition(HitPartition partition) {
+        jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition.getName());
+    }
+
+    /**
+     * Deletes hits older than {@code before} row by row: from the default
+     * partition when the table is partitioned, otherwise from the whole table.
+     */
+    public int deleteHitsBefore(String table, LocalDateTime before) {
+        return jdbcTemplate.update(DELETE_HITS_BEFORE_SQL.formatted(table), Timestamp.valueOf(before));
+    }
+}
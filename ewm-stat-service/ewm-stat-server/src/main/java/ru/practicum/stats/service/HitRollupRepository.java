@@ -0,0 +1,98 @@
+package ru.practicum.stats.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.ViewStats;
+import ru.practicum.stats.model.HitRollup;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+@Timed("stats.repository")
+public class HitRollupRepository {
+    private static final int BATCH_SIZE = 500;
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    private static final String UPSERT_POSTGRES_SQL =
+            "INSERT INTO endpoint_hit_rollups (app, uri, bucket_start, hits) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (uri, bucket_start, app) " +
+            "DO UPDATE SET hits = endpoint_hit_rollups.hits + EXCLUDED.hits";
+
+    private static final String UPSERT_STANDARD_SQL =
+            "MERGE INTO endpoint_hit_rollups r " +
+            "USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(512)), CAST(? AS TIMESTAMP), CAST(? AS BIGINT))) " +
+            "AS s (app, uri, bucket_start, hits) " +
+            "ON r.uri = s.uri AND r.bucket_start = s.bucket_start AND r.app = s.app " +
+            "WHEN MATCHED THEN UPDATE SET hits = r.hits + s.hits " +
+            "WHEN NOT MATCHED THEN INSERT (app, uri, bucket_start, hits) " +
+            "VALUES (s.app, s.uri, s.bucket_start, s.hits)";
+
+    private static final String SELECT_STATS_SQL =
+            "SELECT app, uri, SUM(hits) AS hits " +
+            "FROM endpoint_hit_rollups " +
+            "WHERE bucket_start >= :start AND bucket_start < :end ";
+
+    private static final String DELETE_BEFORE_SQL = "DELETE FROM endpoint_hit_rollups WHERE bucket_start < ?";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile String upsertSql;
+
+    public void increment(List<HitRollup> rollups) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate(getUpsertSql(), rollups, BATCH_SIZE, (ps, rollup) -> {
+            ps.setString(1, rollup.getApp());
+            ps.setString(2, rollup.getUri());
+            ps.setTimestamp(3, Timestamp.valueOf(rollup.getBucketStart()));
+            ps.setLong(4, rollup.getHits());
+        });
+    }
+
+    /**
+     * Sums rollup buckets with {@code start <= bucket_start < end}.
+     */
+    public List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("start", Timestamp.valueOf(start))
+                .addValue("end", Timestamp.valueOf(end));
+
+        String sql = SELECT_STATS_SQL;
+        if (uris != null && !uris.isEmpty()) {
+            sql += "AND uri IN (:uris) ";
+            params.addValue("uris", uris);
+        }
+        sql += "GROUP BY app, uri";
+
+        return jdbcTemplate.query(sql, params, (rs, rowNum) ->
+                new ViewStats(rs.getString("app"), rs.getString("uri"), rs.getLong("hits")));
+    }
+
+    /**
+     * Deletes rollup buckets with {@code bucket_start < before}; {@code before}
+     * is expected to be aligned to a bucket.
+     */
+    public int deleteBucketsBefore(LocalDateTime before) {
+        return jdbcTemplate.getJdbcTemplate().update(DELETE_BEFORE_SQL, Timestamp.valueOf(before));
+    }
+
+    public boolean isEmpty() {
+        Boolean exists = jdbcTemplate.getJdbcTemplate().queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM endpoint_hit_rollups)", Boolean.class);
+        return !Boolean.TRUE.equals(exists);
+    }
+
+    private String getUpsertSql() {
+        if (upsertSql == null) {
+            String product = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            upsertSql = POSTGRESQL.equals(product) ? UPSERT_POSTGRES_SQL : UPSERT_STANDARD_SQL;
+        }
+        return upsertSql;
+    }
+}
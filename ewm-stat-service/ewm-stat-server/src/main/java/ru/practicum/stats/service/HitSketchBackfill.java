@@ -0,0 +1,58 @@
+package ru.practicum.stats.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.stats.model.EndpointHitEntity;
+import ru.practicum.stats.model.HitSketch;
+
+import java.util.List;
+
+/**
+ * Builds unique-visitor sketches for hits stored before the sketch table
+ * existed. Whether the table is empty is checked before any hit arrives, as
+ * new hits and the legacy migration fill it before the backfill runs.
+ * Register merges are idempotent, so hits ingested concurrently are never
+ * counted twice.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HitSketchBackfill {
+    private static final int PAGE_SIZE = 10_000;
+
+    private final StatsRepository statsRepository;
+    private final HitSketchRepository sketchRepository;
+
+    private boolean pending;
+
+    @PostConstruct
+    public void init() {
+        pending = sketchRepository.isEmpty();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!pending) {
+            return;
+        }
+        pending = false;
+
+        long lastId = 0;
+        long processed = 0;
+        List<EndpointHitEntity> page = statsRepository.getHitsAfter(lastId, PAGE_SIZE);
+        while (!page.isEmpty()) {
+            sketchRepository.merge(HitSketch.aggregate(page));
+            processed += page.size();
+            lastId = page.get(page.size() - 1).getId();
+            page = statsRepository.getHitsAfter(lastId, PAGE_SIZE);
+        }
+
+        if (processed > 0) {
+            log.info("Unique-visitor sketches backfilled from {} hits", processed);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package ru.practicum.stats.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.stats.model.HitSketch;
+import ru.practicum.stats.model.HyperLogLog;
+import ru.practicum.stats.service.HitDictionaryRepository.Dictionary;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Unique-visitor sketches, one row per app, URI and day holding all
+ * {@link HyperLogLog#REGISTER_COUNT} registers as one byte array. Apps and
+ * URIs are stored as ids from {@link HitDictionary}. Registers are merged in
+ * Java: a range query reads one row per app, URI and day in the range.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed("stats.repository")
+public class HitSketchRepository {
+    private static final int BATCH_SIZE = 500;
+    private static final String POSTGRESQL = "PostgreSQL";
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparingInt(Key::uriId)
+            .thenComparing(Key::bucketStart)
+            .thenComparingInt(Key::appId);
+
+    private static final String INSERT_MISSING_POSTGRES_SQL =
+            "INSERT INTO endpoint_hit_daily_sketches (app_id, uri_id, bucket_start, registers) " +
+            "VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (uri_id, bucket_start, app_id) DO NOTHING";
+
+    private static final String INSERT_MISSING_STANDARD_SQL =
+            "MERGE INTO endpoint_hit_daily_sketches r " +
+            "USING (VALUES (CAST(? AS INTEGER), CAST(? AS INTEGER), CAST(? AS TIMESTAMP), CAST(? AS BYTEA))) " +
+            "AS s (app_id, uri_id, bucket_start, registers) " +
+            "ON r.uri_id = s.uri_id AND r.bucket_start = s.bucket_start AND r.app_id = s.app_id " +
+            "WHEN NOT MATCHED THEN INSERT (app_id, uri_id, bucket_start, registers) " +
+            "VALUES (s.app_id, s.uri_id, s.bucket_start, s.registers)";
+
+    private static final String SELECT_FOR_UPDATE_SQL =
+            "SELECT app_id, uri_id, bucket_start, registers " +
+            "FROM endpoint_hit_daily_sketches " +
+            "WHERE uri_id IN (:uriIds) AND bucket_start IN (:buckets) AND app_id IN (:appIds) " +
+            "ORDER BY uri_id, bucket_start, app_id " +
+            "FOR UPDATE";
+
+    private static final String UPDATE_REGISTERS_SQL =
+            "UPDATE endpoint_hit_daily_sketches SET registers = ? " +
+            "WHERE uri_id = ? AND bucket_start = ? AND app_id = ?";
+
+    private static final String SELECT_SKETCHES_SQL =
+            "SELECT app_id, uri_id, registers " +
+            "FROM endpoint_hit_daily_sketches " +
+            "WHERE bucket_start >= :start AND bucket_start < :end ";
+
+    private static final String DELETE_BEFORE_SQL = "DELETE FROM endpoint_hit_daily_sketches WHERE bucket_start < ?";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final HitDictionary dictionary;
+
+    private volatile String insertMissingSql;
+
+    /**
+     * Merges the sketches into the stored ones. Missing rows are inserted
+     * first, so that every row of the batch exists and can be locked; rows
+     * are then locked and written in key order, which keeps concurrent merges
+     * from losing registers or deadlocking.
+     */
+    public void merge(List<HitSketch> sketches) {
+        if (sketches.isEmpty()) {
+            return;
+        }
+        Map<Key, HyperLogLog> merged = encode(sketches);
+
+        List<Map.Entry<Key, HyperLogLog>> rows = new ArrayList<>(merged.entrySet());
+        jdbcTemplate.getJdbcTemplate().batchUpdate(getInsertMissingSql(), rows, BATCH_SIZE, (ps, row) -> {
+            ps.setInt(1, row.getKey().appId());
+            ps.setInt(2, row.getKey().uriId());
+            ps.setTimestamp(3, Timestamp.valueOf(row.getKey().bucketStart()));
+            ps.setBytes(4, row.getValue().toBytes());
+        });
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("uriIds", distinct(merged.keySet(), Key::uriId))
+                .addValue("buckets", merged.keySet().stream()
+                        .map(key -> Timestamp.valueOf(key.bucketStart()))
+                        .distinct()
+                        .toList())
+                .addValue("appIds", distinct(merged.keySet(), Key::appId));
+        List<Map.Entry<Key, HyperLogLog>> changed = new ArrayList<>();
+        jdbcTemplate.query(SELECT_FOR_UPDATE_SQL, params, rs -> {
+            Key key = new Key(rs.getInt("app_id"), rs.getInt("uri_id"),
+                    rs.getTimestamp("bucket_start").toLocalDateTime());
+            HyperLogLog update = merged.get(key);
+            if (update == null) {
+                return;
+            }
+            HyperLogLog stored = HyperLogLog.fromBytes(rs.getBytes("registers"));
+            if (stored.merge(update)) {
+                changed.add(Map.entry(key, stored));
+            }
+        });
+
+        jdbcTemplate.getJdbcTemplate().batchUpdate(UPDATE_REGISTERS_SQL, changed, BATCH_SIZE, (ps, row) -> {
+            ps.setBytes(1, row.getValue().toBytes());
+            ps.setInt(2, row.getKey().uriId());
+            ps.setTimestamp(3, Timestamp.valueOf(row.getKey().bucketStart()));
+            ps.setInt(4, row.getKey().appId());
+        });
+    }
+
+    /**
+     * Merges the sketches of buckets with {@code start <= bucket_start < end}
+     * into one HyperLogLog per (app, uri).
+     */
+    public Map<List<String>, HyperLogLog> getSketches(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("start", Timestamp.valueOf(start))
+                .addValue("end", Timestamp.valueOf(end));
+
+        String sql = SELECT_SKETCHES_SQL;
+        if (uris != null && !uris.isEmpty()) {
+            Map<String, Integer> uriIds = dictionary.find(Dictionary.URIS, uris);
+            if (uriIds.isEmpty()) {
+                return new HashMap<>();
+            }
+            sql += "AND uri_id IN (:uriIds) ";
+            params.addValue("uriIds", List.copyOf(uriIds.values()));
+        }
+
+        Map<List<Integer>, HyperLogLog> byIds = new HashMap<>();
+        jdbcTemplate.query(sql, params, rs -> {
+            HyperLogLog sketch = HyperLogLog.fromBytes(rs.getBytes("registers"));
+            byIds.merge(List.of(rs.getInt("app_id"), rs.getInt("uri_id")), sketch, (left, right) -> {
+                left.merge(right);
+                return left;
+            });
+        });
+
+        Map<Integer, String> apps = dictionary.resolve(Dictionary.APPS,
+                byIds.keySet().stream().map(key -> key.get(0)).collect(Collectors.toSet()));
+        Map<Integer, String> uriNames = dictionary.resolve(Dictionary.URIS,
+                byIds.keySet().stream().map(key -> key.get(1)).collect(Collectors.toSet()));
+        Map<List<String>, HyperLogLog> sketches = new HashMap<>();
+        byIds.forEach((key, sketch) -> sketches.put(List.of(apps.get(key.get(0)), uriNames.get(key.get(1))), sketch));
+        return sketches;
+    }
+
+    /**
+     * Deletes the sketches of buckets with {@code bucket_start < before};
+     * {@code before} is expected to be aligned to a bucket.
+     */
+    public int deleteBucketsBefore(LocalDateTime before) {
+        return jdbcTemplate.getJdbcTemplate().update(DELETE_BEFORE_SQL, Timestamp.valueOf(before));
+    }
+
+    public boolean isEmpty() {
+        Boolean exists = jdbcTemplate.getJdbcTemplate().queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM endpoint_hit_daily_sketches)", Boolean.class);
+        return !Boolean.TRUE.equals(exists);
+    }
+
+    // Скетчи одного ключа из пачки сливаются заранее, ключи упорядочены как блокировки строк
+    private Map<Key, HyperLogLog> encode(List<HitSketch> sketches) {
+        Map<String, Integer> appIds = dictionary.intern(Dictionary.APPS,
+                sketches.stream().map(HitSketch::getApp).distinct().toList());
+        Map<String, Integer> uriIds = dictionary.intern(Dictionary.URIS,
+                sketches.stream().map(HitSketch::getUri).distinct().toList());
+
+        Map<Key, HyperLogLog> merged = new TreeMap<>(KEY_ORDER);
+        for (HitSketch sketch : sketches) {
+            Key key = new Key(appIds.get(sketch.getApp()), uriIds.get(sketch.getUri()), sketch.getBucketStart());
+            merged.computeIfAbsent(key, k -> new HyperLogLog()).merge(sketch.getSketch());
+        }
+        return merged;
+    }
+
+    private static List<Integer> distinct(Set<Key> keys, ToIntFunction<Key> id) {
+        return keys.stream().mapToInt(id).distinct().boxed().toList();
+    }
+
+    private String getInsertMissingSql() {
+        if (insertMissingSql == null) {
+            String product = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            insertMissingSql = POSTGRESQL.equals(product) ? INSERT_MISSING_POSTGRES_SQL : INSERT_MISSING_STANDARD_SQL;
+        }
+        return insertMissingSql;
+    }
+
+    private record Key(int appId, int uriId, LocalDateTime bucketStart) {
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.stats.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.stats.exception.ValidationException;
+import ru.practicum.stats.model.EndpointHitEntity;
+import ru.practicum.stats.model.HitRollup;
+import ru.practicum.stats.model.HitSketch;
+import ru.practicum.stats.model.IpAddress;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves hits from the {@code endpoint_hits} table, which stored app, URI and
+ * IP as text, into the dictionary-encoded {@code endpoint_hit_log} and drops
+ * the old table once it is empty. Every page is copied and deleted in one
+ * transaction, so an interrupted migration resumes without duplicates.
+ * <p>
+ * Every page is merged into the sketches, which is idempotent. Versions that
+ * kept rollups already counted these hits; if the rollup table is empty when
+ * the server starts, they were never aggregated: the table is renamed to
+ * {@code endpoint_hits_unaggregated} before any new hit arrives, and its
+ * pages are also added to the rollups, including after a restart.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LegacyHitMigration {
+    private static final int PAGE_SIZE = 10_000;
+    private static final String LEGACY_TABLE = "endpoint_hits";
+    private static final String UNAGGREGATED_TABLE = "endpoint_hits_unaggregated";
+
+    private static final String EXISTS_SQL =
+            "SELECT COUNT(*) FROM information_schema.tables " +
+            "WHERE UPPER(table_name) = UPPER(?) AND UPPER(table_schema) = UPPER(CURRENT_SCHEMA)";
+
+    private static final String SELECT_PAGE_SQL = "SELECT id, app, uri, ip, timestamp FROM %s ORDER BY id LIMIT ?";
+
+    private static final String DELETE_PAGE_SQL = "DELETE FROM %s WHERE id <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StatsRepository statsRepository;
+    private final HitRollupRepository rollupRepository;
+    private final HitSketchRepository sketchRepository;
+    private final HitPartitionMaintenance partitionMaintenance;
+
+    @PostConstruct
+    public void init() {
+        // Пустые агрегаты при живой старой таблице: хиты из неё ещё не учтены в агрегатах
+        if (exists(LEGACY_TABLE) && rollupRepository.isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE " + LEGACY_TABLE + " RENAME TO " + UNAGGREGATED_TABLE);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        String table = exists(UNAGGREGATED_TABLE) ? UNAGGREGATED_TABLE : LEGACY_TABLE;
+        if (!exists(table)) {
+            return;
+        }
+        boolean aggregate = UNAGGREGATED_TABLE.equals(table);
+
+        long migrated = 0;
+        long skipped = 0;
+        MigratedPage page = migratePage(table, aggregate);
+        while (page.migrated() + page.skipped() > 0) {
+            migrated += page.migrated();
+            skipped += page.skipped();
+            page = migratePage(table, aggregate);
+        }
+
+        jdbcTemplate.execute("DROP TABLE " + table + " CASCADE");
+        // Старые хиты попали в default-секцию, обслуживание разносит их по секциям
+        partitionMaintenance.maintain();
+        log.info("Migrated {} hits to the encoded hit log{}, skipped {} with invalid IP",
+                migrated, aggregate ? " with rollups" : "", skipped);
+    }
+
+    private MigratedPage migratePage(String table, boolean aggregate) {
+        return transactionTemplate.execute(status -> {
+            List<EndpointHitEntity> page = jdbcTemplate.query(SELECT_PAGE_SQL.formatted(table), (rs, rowNum) ->
+                    new EndpointHitEntity(
+                            rs.getLong("id"),
+                            rs.getString("app"),
+                            rs.getString("uri"),
+                            rs.getString("ip"),
+                            rs.getTimestamp("timestamp").toLocalDateTime()), PAGE_SIZE);
+            if (page.isEmpty()) {
+                return new MigratedPage(0, 0);
+            }
+
+            List<EndpointHitEntity> valid = new ArrayList<>(page.size());
+            for (EndpointHitEntity hit : page) {
+                try {
+                    // Скетчи считают хеш по той же записи IP, что и при приёме хитов
+                    hit.setIp(IpAddress.normalize(hit.getIp()));
+                    valid.add(hit);
+                } catch (ValidationException e) {
+                    log.warn("Hit {} not migrated: {}", hit.getId(), e.getMessage());
+                }
+            }
+            statsRepository.batchInsert(valid);
+            if (aggregate) {
+                rollupRepository.increment(HitRollup.aggregate(valid));
+            }
+            sketchRepository.merge(HitSketch.aggregate(valid));
+            jdbcTemplate.update(DELETE_PAGE_SQL.formatted(table), page.get(page.size() - 1).getId());
+            return new MigratedPage(valid.size(), page.size() - valid.size());
+        });
+    }
+
+    private boolean exists(String table) {
+        Integer tables = jdbcTemplate.queryForObject(EXISTS_SQL, Integer.class, table);
+        return tables != null && tables > 0;
+    }
+
+    private record MigratedPage(int migrated, int skipped) {
+    }
+}
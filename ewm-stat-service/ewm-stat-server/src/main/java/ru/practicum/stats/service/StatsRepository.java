@@ -1,40 +1,220 @@
 package ru.practicum.stats.service;
 
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 import ru.practicum.ViewStats;
 import ru.practicum.stats.model.EndpointHitEntity;
+import ru.practicum.stats.model.IpAddress;
+import ru.practicum.stats.service.HitDictionaryRepository.Dictionary;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
 
+/**
+ * Raw hits. Apps and URIs are stored as ids from {@link HitDictionary} and IPs
+ * in binary form ({@link IpAddress}), so the log rows and their indexes stay
+ * small and the aggregations group and compare integers and short byte strings.
+ */
 @Repository
-public interface StatsRepository extends JpaRepository<EndpointHitEntity, Long> {
-
-    @Query("SELECT new ru.practicum.ViewStats(h.app, h.uri, COUNT(h.ip)) " +
-            "FROM EndpointHitEntity h " +
-            "WHERE h.timestamp BETWEEN :start AND :end " +
-            "AND (:uris IS NULL OR h.uri IN :uris) " +
-            "GROUP BY h.app, h.uri " +
-            "ORDER BY COUNT(h.ip) DESC")
-    List<ViewStats> getStats(
-            @Param("start") LocalDateTime start,
-            @Param("end") LocalDateTime end,
-            @Param("uris") List<String> uris
-    );
-
-    @Query("SELECT new ru.practicum.ViewStats(h.app, h.uri, COUNT(DISTINCT h.ip)) " +
-            "FROM EndpointHitEntity h " +
-            "WHERE h.timestamp BETWEEN :start AND :end " +
-            "AND (:uris IS NULL OR h.uri IN :uris) " +
-            "GROUP BY h.app, h.uri " +
-            "ORDER BY COUNT(DISTINCT h.ip) DESC")
-    List<ViewStats> getUniqueStats(
-            @Param("start") LocalDateTime start,
-            @Param("end") LocalDateTime end,
-            @Param("uris") List<String> uris
-    );
-}
+@RequiredArgsConstructor
+@Timed("stats.repository")
+public class StatsRepository {
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_HIT_SQL =
+            "INSERT INTO endpoint_hit_log (app_id, uri_id, ip, timestamp) VALUES (?, ?, ?, ?)";
+
+    private static final String SELECT_STATS_SQL =
+            "SELECT app_id, uri_id, COUNT(*) AS hits " +
+            "FROM endpoint_hit_log " +
+            "WHERE timestamp BETWEEN :start AND :end ";
+
+    private static final String SELECT_UNIQUE_STATS_SQL =
+            "SELECT app_id, uri_id, COUNT(DISTINCT ip) AS hits " +
+            "FROM endpoint_hit_log " +
+            "WHERE timestamp BETWEEN :start AND :end ";
+
+    private static final String SELECT_EDGE_STATS_SQL =
+            "SELECT app_id, uri_id, COUNT(*) AS hits " +
+            "FROM endpoint_hit_log " +
+            "WHERE ((timestamp >= :start AND timestamp < :headEnd) " +
+            "   OR (timestamp >= :tailStart AND timestamp <= :end)) ";
+
+    private static final String SELECT_EDGE_VISITORS_SQL =
+            "SELECT DISTINCT app_id, uri_id, ip " +
+            "FROM endpoint_hit_log " +
+            "WHERE ((timestamp >= :start AND timestamp < :headEnd) " +
+            "   OR (timestamp >= :tailStart AND timestamp <= :end)) ";
+
+    private static final String SELECT_HITS_AFTER_SQL =
+            "SELECT id, app_id, uri_id, ip, timestamp " +
+            "FROM endpoint_hit_log " +
+            "WHERE id > :afterId " +
+            "ORDER BY id " +
+            "LIMIT :limit";
+
+    private static final String GROUP_BY_SQL = "GROUP BY app_id, uri_id ";
+    private static final String ORDER_BY_HITS_SQL = "ORDER BY hits DESC";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final HitDictionary dictionary;
+
+    public void batchInsert(List<EndpointHitEntity> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> appIds = dictionary.intern(Dictionary.APPS,
+                hits.stream().map(EndpointHitEntity::getApp).distinct().toList());
+        Map<String, Integer> uriIds = dictionary.intern(Dictionary.URIS,
+                hits.stream().map(EndpointHitEntity::getUri).distinct().toList());
+
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_HIT_SQL, hits, BATCH_SIZE, (ps, hit) -> {
+            ps.setInt(1, appIds.get(hit.getApp()));
+            ps.setInt(2, uriIds.get(hit.getUri()));
+            ps.setBytes(3, IpAddress.encode(hit.getIp()));
+            ps.setTimestamp(4, Timestamp.valueOf(hit.getTimestamp()));
+        });
+    }
+
+    public List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        return queryStats(SELECT_STATS_SQL, GROUP_BY_SQL + ORDER_BY_HITS_SQL, rangeParams(start, end), uris);
+    }
+
+    public List<ViewStats> getUniqueStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        return queryStats(SELECT_UNIQUE_STATS_SQL, GROUP_BY_SQL + ORDER_BY_HITS_SQL, rangeParams(start, end), uris);
+    }
+
+    /**
+     * Hits in {@code [start, headEnd)} and {@code [tailStart, end]}, the partial
+     * buckets around the range covered by rollups.
+     */
+    public List<ViewStats> getEdgeStats(LocalDateTime start,
+                                        LocalDateTime headEnd,
+                                        LocalDateTime tailStart,
+                                        LocalDateTime end,
+                                        List<String> uris) {
+        return queryStats(SELECT_EDGE_STATS_SQL, GROUP_BY_SQL, edgeParams(start, headEnd, tailStart, end), uris);
+    }
 
+    /**
+     * Distinct (app, uri, ip) of raw hits in the partial buckets around the sketched range.
+     */
+    public List<EndpointHitEntity> getEdgeVisitors(LocalDateTime start,
+                                                   LocalDateTime headEnd,
+                                                   LocalDateTime tailStart,
+                                                   LocalDateTime end,
+                                                   List<String> uris) {
+        MapSqlParameterSource params = edgeParams(start, headEnd, tailStart, end);
+        String filter = uriFilter(uris, params);
+        if (filter == null) {
+            return List.of();
+        }
+        return toHits(jdbcTemplate.query(SELECT_EDGE_VISITORS_SQL + filter, params, (rs, rowNum) ->
+                new EncodedHit(null, rs.getInt("app_id"), rs.getInt("uri_id"), rs.getBytes("ip"), null)));
+    }
+
+    /**
+     * Reads raw hits with id greater than {@code afterId}, used to backfill sketches.
+     */
+    public List<EndpointHitEntity> getHitsAfter(long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+
+        return toHits(jdbcTemplate.query(SELECT_HITS_AFTER_SQL, params, (rs, rowNum) ->
+                new EncodedHit(
+                        rs.getLong("id"),
+                        rs.getInt("app_id"),
+                        rs.getInt("uri_id"),
+                        rs.getBytes("ip"),
+                        rs.getTimestamp("timestamp").toLocalDateTime())));
+    }
+
+    private List<ViewStats> queryStats(String select, String tail, MapSqlParameterSource params, List<String> uris) {
+        String filter = uriFilter(uris, params);
+        if (filter == null) {
+            return List.of();
+        }
+        List<EncodedStats> rows = jdbcTemplate.query(select + filter + tail, params, this::toEncodedStats);
+
+        Map<Integer, String> apps = dictionary.resolve(Dictionary.APPS, ids(rows, EncodedStats::appId));
+        Map<Integer, String> uriNames = dictionary.resolve(Dictionary.URIS, ids(rows, EncodedStats::uriId));
+        return rows.stream()
+                .map(row -> new ViewStats(apps.get(row.appId()), uriNames.get(row.uriId()), row.hits()))
+                .collect(Collectors.toList());
+    }
+
+    private List<EndpointHitEntity> toHits(List<EncodedHit> rows) {
+        Map<Integer, String> apps = dictionary.resolve(Dictionary.APPS, ids(rows, EncodedHit::appId));
+        Map<Integer, String> uriNames = dictionary.resolve(Dictionary.URIS, ids(rows, EncodedHit::uriId));
+
+        List<EndpointHitEntity> hits = new ArrayList<>(rows.size());
+        for (EncodedHit row : rows) {
+            hits.add(new EndpointHitEntity(
+                    row.id(),
+                    apps.get(row.appId()),
+                    uriNames.get(row.uriId()),
+                    IpAddress.decode(row.ip()),
+                    row.timestamp()));
+        }
+        return hits;
+    }
+
+    /**
+     * URI condition on the dictionary ids, or {@code null} when none of the
+     * requested URIs was ever hit and the result is known to be empty.
+     */
+    private String uriFilter(List<String> uris, MapSqlParameterSource params) {
+        if (uris == null || uris.isEmpty()) {
+            return "";
+        }
+        Collection<Integer> uriIds = dictionary.find(Dictionary.URIS, uris).values();
+        if (uriIds.isEmpty()) {
+            return null;
+        }
+        params.addValue("uriIds", List.copyOf(uriIds));
+        return "AND uri_id IN (:uriIds) ";
+    }
+
+    private EncodedStats toEncodedStats(ResultSet rs, int rowNum) throws SQLException {
+        return new EncodedStats(rs.getInt("app_id"), rs.getInt("uri_id"), rs.getLong("hits"));
+    }
+
+    private static MapSqlParameterSource rangeParams(LocalDateTime start, LocalDateTime end) {
+        return new MapSqlParameterSource()
+                .addValue("start", Timestamp.valueOf(start))
+                .addValue("end", Timestamp.valueOf(end));
+    }
+
+    private static MapSqlParameterSource edgeParams(LocalDateTime start,
+                                                    LocalDateTime headEnd,
+                                                    LocalDateTime tailStart,
+                                                    LocalDateTime end) {
+        return new MapSqlParameterSource()
+                .addValue("start", Timestamp.valueOf(start))
+                .addValue("headEnd", Timestamp.valueOf(headEnd))
+                .addValue("tailStart", Timestamp.valueOf(tailStart))
+                .addValue("end", Timestamp.valueOf(end));
+    }
+
+    private static <T> List<Integer> ids(List<T> rows, ToIntFunction<T> id) {
+        return rows.stream().mapToInt(id).distinct().boxed().toList();
+    }
+
+    private record EncodedStats(int appId, int uriId, long hits) {
+    }
+
+    private record EncodedHit(Long id, int appId, int uriId, byte[] ip, LocalDateTime timestamp) {
+    }
+}
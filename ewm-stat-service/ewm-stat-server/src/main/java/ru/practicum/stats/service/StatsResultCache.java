@@ -0,0 +1,177 @@
+package ru.practicum.stats.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.ViewStats;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * In-process cache of {@code /stats} results. Entries are keyed by both time
+ * bounds floored to the configured granularity, so requests whose {@code end}
+ * differs by a few seconds share entries, but a miss is loaded for the exact
+ * bounds of the request: the hits of its last partial step are counted, and a
+ * request sharing the entry sees them as of the load, like any cached result.
+ * Results are stored per URI: a request for a URI set only queries the URIs
+ * that are not cached yet. Entries are bounded by size (least recently used
+ * first) and by time to live.
+ */
+@Component
+public class StatsResultCache {
+    private static final String CACHE_NAME = "statsResults";
+
+    private final boolean enabled;
+    private final long granularitySeconds;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public StatsResultCache(@Value("${stats.cache.enabled:true}") boolean enabled,
+                            @Value("${stats.cache.granularity-seconds:60}") long granularitySeconds,
+                            @Value("${stats.cache.max-size:10000}") int maxSize,
+                            @Value("${stats.cache.ttl-ms:30000}") long ttlMs,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.granularitySeconds = Math.max(1, granularitySeconds);
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMs * 1_000_000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > StatsResultCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hits = cacheCounter(meterRegistry, "cache.gets", "result", "hit");
+        this.misses = cacheCounter(meterRegistry, "cache.gets", "result", "miss");
+        this.evictions = cacheCounter(meterRegistry, "cache.evictions");
+        Gauge.builder("cache.size", this, StatsResultCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.hit.ratio", this, StatsResultCache::hitRatio)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public List<ViewStats> get(LocalDateTime start,
+                               LocalDateTime end,
+                               List<String> uris,
+                               boolean unique,
+                               boolean approximate,
+                               Loader loader) {
+        LocalDateTime windowStart = floor(start);
+        LocalDateTime windowEnd = floor(end);
+        // Окно короче шага округления схлопнулось бы в пустое, такие запросы идут мимо кеша
+        if (!enabled || !windowStart.isBefore(windowEnd)) {
+            return loader.load(start, end, uris);
+        }
+
+        if (uris == null || uris.isEmpty()) {
+            Key key = new Key(windowStart, windowEnd, unique, approximate, null);
+            List<ViewStats> cached = getIfFresh(key);
+            if (cached == null) {
+                cached = List.copyOf(loader.load(start, end, uris));
+                put(key, cached);
+            }
+            return copyOf(cached);
+        }
+
+        List<ViewStats> result = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (String uri : new LinkedHashSet<>(uris)) {
+            List<ViewStats> cached = getIfFresh(new Key(windowStart, windowEnd, unique, approximate, uri));
+            if (cached != null) {
+                result.addAll(cached);
+            } else {
+                missing.add(uri);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<String, List<ViewStats>> loaded = loader.load(start, end, missing).stream()
+                    .collect(Collectors.groupingBy(ViewStats::getUri));
+            for (String uri : missing) {
+                // Пустой результат тоже кешируется, иначе непосещаемые URI каждый раз уходили бы в базу
+                List<ViewStats> stats = List.copyOf(loaded.getOrDefault(uri, List.of()));
+                put(new Key(windowStart, windowEnd, unique, approximate, uri), stats);
+                result.addAll(stats);
+            }
+        }
+
+        return copyOf(result);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private LocalDateTime floor(LocalDateTime dateTime) {
+        long epochSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochSecond, granularitySeconds) * granularitySeconds,
+                0, ZoneOffset.UTC);
+    }
+
+    private synchronized List<ViewStats> getIfFresh(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.expiresAt() - System.nanoTime() <= 0) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.stats();
+    }
+
+    private synchronized void put(Key key, List<ViewStats> stats) {
+        entries.put(key, new Entry(stats, System.nanoTime() + ttlNanos));
+    }
+
+    // ViewStats изменяемый, поэтому наружу отдаются копии закешированных объектов
+    private static List<ViewStats> copyOf(List<ViewStats> stats) {
+        return stats.stream()
+                .map(stat -> new ViewStats(stat.getApp(), stat.getUri(), stat.getHits()))
+                .sorted(Comparator.comparing(ViewStats::getHits).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String name, String... tags) {
+        return Counter.builder(name)
+                .tag("cache", CACHE_NAME)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+        List<ViewStats> load(LocalDateTime start, LocalDateTime end, List<String> uris);
+    }
+
+    private record Key(LocalDateTime start, LocalDateTime end, boolean unique, boolean approximate, String uri) {
+    }
+
+    private record Entry(List<ViewStats> stats, long expiresAt) {
+    }
+}
@@ -10,8 +10,26 @@ public interface StatsService {
 
     void saveHit(EndpointHit hit);
 
+    /**
+     * Saves the batch; hits with an invalid IP are logged and skipped one by
+     * one instead of rejecting the whole batch.
+     */
+    void saveHits(List<EndpointHit> hits);
+
+    default List<ViewStats> getStats(LocalDateTime start,
+                                     LocalDateTime end,
+                                     List<String> uris,
+                                     boolean unique) {
+        return getStats(start, end, uris, unique, false);
+    }
+
+    /**
+     * With {@code approximate} set, unique counts come from HyperLogLog sketches
+     * and have a relative standard error of about 3.25%.
+     */
     List<ViewStats> getStats(LocalDateTime start,
                              LocalDateTime end,
                              List<String> uris,
-                             boolean unique);
+                             boolean unique,
+                             boolean approximate);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package ru.practicum.stats.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
@@ -8,23 +9,41 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.EndpointHit;
 import ru.practicum.ViewStats;
 import ru.practicum.stats.exception.StatsServiceException;
+import ru.practicum.stats.exception.ValidationException;
 import ru.practicum.stats.mapper.EndpointHitMapper;
+import ru.practicum.stats.model.EndpointHitEntity;
+import ru.practicum.stats.model.HitRollup;
+import ru.practicum.stats.model.HitSketch;
+import ru.practicum.stats.model.HyperLogLog;
+import ru.practicum.stats.model.IpAddress;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed("stats.service")
 public class StatsServiceImpl implements StatsService {
     private final StatsRepository statsRepository;
+    private final HitRollupRepository rollupRepository;
+    private final HitSketchRepository sketchRepository;
     private final EndpointHitMapper mapper;
 
     @Override
     @Transactional
     public void saveHit(EndpointHit hit) {
         try {
-            statsRepository.save(mapper.toEntity(hit));
+            EndpointHitEntity entity = toEntity(hit);
+            statsRepository.batchInsert(List.of(entity));
+            rollupRepository.increment(HitRollup.aggregate(List.of(entity)));
+            sketchRepository.merge(HitSketch.aggregate(List.of(entity)));
             log.info("Hit saved: {}", hit);
         } catch (DataAccessException e) {
             log.error("Ошибка сохранения hit: {}", e.getMessage());
@@ -32,14 +51,97 @@ public class StatsServiceImpl implements StatsService {
         }
     }
 
+    @Override
+    @Transactional
+    public void saveHits(List<EndpointHit> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+        // Хит с неверным IP пропускается по отдельности, чтобы не отклонять из-за него весь пакет
+        List<EndpointHitEntity> entities = new ArrayList<>(hits.size());
+        for (EndpointHit hit : hits) {
+            try {
+                entities.add(toEntity(hit));
+            } catch (ValidationException e) {
+                log.warn("Hit {} {} not saved: {}", hit.getApp(), hit.getUri(), e.getMessage());
+            }
+        }
+        try {
+            statsRepository.batchInsert(entities);
+            rollupRepository.increment(HitRollup.aggregate(entities));
+            sketchRepository.merge(HitSketch.aggregate(entities));
+            log.info("Hits saved: {}, skipped with invalid IP: {}", entities.size(), hits.size() - entities.size());
+        } catch (DataAccessException e) {
+            log.error("Ошибка сохранения hits: {}", e.getMessage());
+            throw new StatsServiceException("Ошибка сохранения статистики");
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ViewStats> getStats(LocalDateTime start,
                                     LocalDateTime end,
                                     List<String> uris,
-                                    boolean unique) {
-        return unique
-                ? statsRepository.getUniqueStats(start, end, uris)
-                : statsRepository.getStats(start, end, uris);
+                                    boolean unique,
+                                    boolean approximate) {
+        if (unique) {
+            return approximate
+                    ? getApproximateUniqueStats(start, end, uris)
+                    : statsRepository.getUniqueStats(start, end, uris);
+        }
+
+        LocalDateTime rollupStart = HitRollup.ceilBucket(start);
+        LocalDateTime rollupEnd = HitRollup.bucketOf(end);
+        if (!rollupStart.isBefore(rollupEnd)) {
+            return statsRepository.getStats(start, end, uris);
+        }
+
+        return merge(
+                rollupRepository.getStats(rollupStart, rollupEnd, uris),
+                statsRepository.getEdgeStats(start, rollupStart, rollupEnd, end, uris)
+        );
+    }
+
+    // IP приводится к виду, в котором читается из базы, чтобы хеши уникальных посетителей совпадали
+    private EndpointHitEntity toEntity(EndpointHit hit) {
+        EndpointHitEntity entity = mapper.toEntity(hit);
+        entity.setIp(IpAddress.normalize(entity.getIp()));
+        return entity;
+    }
+
+    private List<ViewStats> getApproximateUniqueStats(LocalDateTime start,
+                                                      LocalDateTime end,
+                                                      List<String> uris) {
+        LocalDateTime sketchStart = HitSketch.ceilBucket(start);
+        LocalDateTime sketchEnd = HitSketch.bucketOf(end);
+        if (!sketchStart.isBefore(sketchEnd)) {
+            return statsRepository.getUniqueStats(start, end, uris);
+        }
+
+        Map<List<String>, HyperLogLog> sketches = sketchRepository.getSketches(sketchStart, sketchEnd, uris);
+        statsRepository.getEdgeVisitors(start, sketchStart, sketchEnd, end, uris)
+                .forEach(hit -> sketches.computeIfAbsent(List.of(hit.getApp(), hit.getUri()), key -> new HyperLogLog())
+                        .add(hit.getIp()));
+
+        return sketches.entrySet().stream()
+                .map(entry -> new ViewStats(entry.getKey().get(0), entry.getKey().get(1), entry.getValue().estimate()))
+                .sorted(Comparator.comparing(ViewStats::getHits).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private List<ViewStats> merge(List<ViewStats> rollupStats, List<ViewStats> edgeStats) {
+        Map<List<String>, ViewStats> merged = new HashMap<>();
+        Stream.concat(rollupStats.stream(), edgeStats.stream())
+                .forEach(stat -> merged.merge(
+                        List.of(stat.getApp(), stat.getUri()),
+                        new ViewStats(stat.getApp(), stat.getUri(), stat.getHits()),
+                        (left, right) -> {
+                            left.setHits(left.getHits() + right.getHits());
+                            return left;
+                        }));
+
+        return merged.values().stream()
+                .sorted(Comparator.comparing(ViewStats::getHits).reversed())
+                .collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+-- Выполняется до schema.sql: на PostgreSQL журнал хитов сразу создаётся секционированным.
+-- Секции и default-секцию ведёт HitPartitionMaintenance
+CREATE TABLE IF NOT EXISTS endpoint_hit_log (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    app_id INTEGER NOT NULL,
+    uri_id INTEGER NOT NULL,
+    ip BYTEA NOT NULL,
+    timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+-- Покрывающий индекс: группировка по (app_id, uri_id) и подсчёт ip читаются из индекса без обращения к таблице
+CREATE INDEX IF NOT EXISTS idx_endpoint_hit_log_uri_timestamp ON endpoint_hit_log (uri_id, timestamp) INCLUDE (app_id, ip);
@@ -1,10 +1,55 @@
-CREATE TABLE IF NOT EXISTS endpoint_hits (
+-- Словари приложений и URI: в журнале хитов хранятся только их целочисленные id
+CREATE TABLE IF NOT EXISTS endpoint_hit_apps (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    app VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS endpoint_hit_uris (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    uri VARCHAR(512) NOT NULL UNIQUE
+);
+
+-- IP хранится в двоичном виде: 4 байта для IPv4, 16 для IPv6
+CREATE TABLE IF NOT EXISTS endpoint_hit_log (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    app_id INTEGER NOT NULL,
+    uri_id INTEGER NOT NULL,
+    ip BYTEA NOT NULL,
+    timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_endpoint_hit_log_timestamp ON endpoint_hit_log (timestamp);
+-- Запросы /stats фильтруют по uri_id IN и диапазону timestamp.
+-- На PostgreSQL индекс с тем же именем, но покрывающий (INCLUDE app_id, ip), создаётся в schema-postgres.sql
+CREATE INDEX IF NOT EXISTS idx_endpoint_hit_log_uri_timestamp ON endpoint_hit_log (uri_id, timestamp);
+
+CREATE TABLE IF NOT EXISTS endpoint_hit_rollups (
     app VARCHAR(255) NOT NULL,
     uri VARCHAR(512) NOT NULL,
-    ip VARCHAR(45) NOT NULL,
-    timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL
+    bucket_start TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    hits BIGINT NOT NULL,
+    PRIMARY KEY (uri, bucket_start, app)
 );
 
-CREATE INDEX IF NOT EXISTS idx_endpoint_hits_timestamp ON endpoint_hits (timestamp);
-CREATE INDEX IF NOT EXISTS idx_endpoint_hits_uri ON endpoint_hits (uri);
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS idx_endpoint_hit_rollups_bucket ON endpoint_hit_rollups (bucket_start);
+
+-- Однократное заполнение агрегатов по уже сохранённым хитам
+INSERT INTO endpoint_hit_rollups (app, uri, bucket_start, hits)
+SELECT a.app, u.uri, DATE_TRUNC('hour', h.timestamp), COUNT(*)
+FROM endpoint_hit_log h
+JOIN endpoint_hit_apps a ON a.id = h.app_id
+JOIN endpoint_hit_uris u ON u.id = h.uri_id
+WHERE NOT EXISTS (SELECT 1 FROM endpoint_hit_rollups)
+GROUP BY a.app, u.uri, DATE_TRUNC('hour', h.timestamp);
+
+-- Скетч уникальных посетителей: одна строка на приложение, URI и день, все 1024 регистра HyperLogLog одним массивом.
+-- Прежняя таблица со строкой на регистр удаляется, скетчи по журналу хитов пересобирает HitSketchBackfill
+DROP TABLE IF EXISTS endpoint_hit_sketches;
+
+CREATE TABLE IF NOT EXISTS endpoint_hit_daily_sketches (
+    app_id INTEGER NOT NULL,
+    uri_id INTEGER NOT NULL,
+    bucket_start TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    registers BYTEA NOT NULL,
+    PRIMARY KEY (uri_id, bucket_start, app_id)
+);
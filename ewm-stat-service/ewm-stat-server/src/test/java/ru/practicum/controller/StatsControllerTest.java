@@ -17,6 +17,9 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -45,6 +48,33 @@ public class StatsControllerTest {
     }
 
 
+    @Test
+    void hits_shouldReturn201() throws Exception {
+        String jsonHits = "[" +
+                "{\"app\":\"ewm-main-service\",\"uri\":\"/events/1\",\"ip\":\"192.163.0.1\",\"timestamp\":\"2023-07-19 10:00:00\"}," +
+                "{\"app\":\"ewm-main-service\",\"uri\":\"/events/2\",\"ip\":\"192.163.0.2\",\"timestamp\":\"2023-07-19 10:00:01\"}" +
+                "]";
+
+        mockMvc.perform(post("/hits")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonHits))
+                .andExpect(status().isCreated());
+
+        verify(statsService).saveHits(argThat(hits -> hits.size() == 2));
+    }
+
+    @Test
+    void hits_shouldReturn400ForInvalidHit() throws Exception {
+        String jsonHits = "[{\"app\":\"ewm-main-service\",\"uri\":\"\",\"ip\":\"192.163.0.1\",\"timestamp\":\"2023-07-19 10:00:00\"}]";
+
+        mockMvc.perform(post("/hits")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonHits))
+                .andExpect(status().isBadRequest());
+
+        verify(statsService, never()).saveHits(any());
+    }
+
     @Test
     void getStats_shouldReturn200() throws Exception {
         LocalDateTime start = LocalDateTime.now().minusDays(1);
@@ -52,7 +82,7 @@ public class StatsControllerTest {
         String startStr = start.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
         String endStr = end.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
 
-        when(statsService.getStats(any(), any(), any(), anyBoolean()))
+        when(statsService.getStats(any(), any(), any(), anyBoolean(), anyBoolean()))
                 .thenReturn(List.of(new ViewStats("ewm-main-service", "/events/1", 10L)));
 
         mockMvc.perform(get("/stats")
@@ -65,4 +95,19 @@ public class StatsControllerTest {
                 .andExpect(jsonPath("$[0].uri").value("/events/1"))
                 .andExpect(jsonPath("$[0].hits").value(10));
     }
+
+    @Test
+    void getStats_shouldPassApproximateFlag() throws Exception {
+        when(statsService.getStats(any(), any(), any(), anyBoolean(), anyBoolean()))
+                .thenReturn(List.of());
+
+        mockMvc.perform(get("/stats")
+                        .param("start", "2023-07-18 00:00:00")
+                        .param("end", "2023-07-19 00:00:00")
+                        .param("unique", "true")
+                        .param("approximate", "true"))
+                .andExpect(status().isOk());
+
+        verify(statsService).getStats(any(), any(), any(), eq(true), eq(true));
+    }
 }
\ No newline at end of file
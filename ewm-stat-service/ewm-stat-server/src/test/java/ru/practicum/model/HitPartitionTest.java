@@ -0,0 +1,56 @@
+package ru.practicum.model;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.stats.model.HitPartition;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HitPartitionTest {
+
+    @Test
+    void starting_shouldCoverCurrentAndFollowingMonths() {
+        List<HitPartition> partitions = HitPartition.starting(
+                LocalDateTime.of(2024, 12, 17, 13, 5), HitPartition.Interval.MONTH, 1);
+
+        assertEquals(List.of(
+                new HitPartition(LocalDateTime.of(2024, 12, 1, 0, 0), LocalDateTime.of(2025, 1, 1, 0, 0)),
+                new HitPartition(LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0))
+        ), partitions);
+    }
+
+    @Test
+    void starting_shouldCoverDays() {
+        List<HitPartition> partitions = HitPartition.starting(
+                LocalDateTime.of(2024, 2, 28, 23, 59), HitPartition.Interval.DAY, 1);
+
+        assertEquals(LocalDateTime.of(2024, 2, 29, 0, 0), partitions.get(1).getFrom());
+        assertEquals(LocalDateTime.of(2024, 3, 1, 0, 0), partitions.get(1).getTo());
+    }
+
+    @Test
+    void parse_shouldReadBoundsBackFromName() {
+        HitPartition partition = new HitPartition(
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0));
+
+        assertEquals("endpoint_hit_log_p20240101_20240201", partition.getName());
+        assertEquals(partition, HitPartition.parse(partition.getName()));
+        assertNull(HitPartition.parse(HitPartition.DEFAULT_PARTITION));
+        assertNull(HitPartition.parse("endpoint_hit_log_p20241301_20241401"));
+    }
+
+    @Test
+    void overlaps_shouldTreatUpperBoundAsExclusive() {
+        HitPartition january = new HitPartition(LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0));
+        HitPartition february = new HitPartition(LocalDateTime.of(2024, 2, 1, 0, 0), LocalDateTime.of(2024, 3, 1, 0, 0));
+        HitPartition midJanuary = new HitPartition(LocalDateTime.of(2024, 1, 15, 0, 0), LocalDateTime.of(2024, 1, 16, 0, 0));
+
+        assertFalse(january.overlaps(february));
+        assertTrue(january.overlaps(midJanuary));
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.model;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.stats.model.HyperLogLog;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HyperLogLogTest {
+
+    @Test
+    void estimate_shouldBeExactForSmallCardinality() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 10; i++) {
+            sketch.add("10.0.0." + i);
+            sketch.add("10.0.0." + i);
+        }
+
+        assertEquals(10L, sketch.estimate());
+    }
+
+    @Test
+    void estimate_shouldStayWithinErrorBound() {
+        int cardinality = 100_000;
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < cardinality; i++) {
+            sketch.add("192.168." + (i >> 8) + "." + (i & 0xff) + "#" + i);
+        }
+
+        double error = Math.abs(sketch.estimate() - cardinality) / (double) cardinality;
+        assertTrue(error < 3 * HyperLogLog.STANDARD_ERROR, "error " + error);
+    }
+
+    @Test
+    void merge_shouldKeepHigherRegisters() {
+        HyperLogLog left = new HyperLogLog();
+        HyperLogLog right = new HyperLogLog();
+        HyperLogLog union = new HyperLogLog();
+        for (int i = 0; i < 1000; i++) {
+            (i % 2 == 0 ? left : right).add("ip-" + i);
+            union.add("ip-" + i);
+        }
+
+        assertTrue(left.merge(right));
+        assertFalse(left.merge(right));
+
+        assertArrayEquals(union.toBytes(), left.toBytes());
+        assertEquals(union.estimate(), left.estimate());
+    }
+
+    @Test
+    void fromBytes_shouldRestoreRegisters() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 100; i++) {
+            sketch.add("ip-" + i);
+        }
+
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertArrayEquals(sketch.toBytes(), restored.toBytes());
+        assertEquals(sketch.estimate(), restored.estimate());
+    }
+}
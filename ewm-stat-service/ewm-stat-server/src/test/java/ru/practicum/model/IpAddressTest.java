@@ -0,0 +1,44 @@
+package ru.practicum.model;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.stats.exception.ValidationException;
+import ru.practicum.stats.model.IpAddress;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IpAddressTest {
+
+    @Test
+    void encode_shouldStoreIpv4InFourBytes() {
+        byte[] bytes = IpAddress.encode("192.168.1.1");
+
+        assertArrayEquals(new byte[]{(byte) 192, (byte) 168, 1, 1}, bytes);
+        assertEquals("192.168.1.1", IpAddress.decode(bytes));
+    }
+
+    @Test
+    void encode_shouldStoreIpv6InSixteenBytes() {
+        byte[] bytes = IpAddress.encode("2001:db8::1");
+
+        assertEquals(16, bytes.length);
+        assertEquals("2001:db8:0:0:0:0:0:1", IpAddress.decode(bytes));
+    }
+
+    @Test
+    void normalize_shouldReturnDecodedForm() {
+        assertEquals("2001:db8:0:0:0:0:0:1", IpAddress.normalize("2001:DB8::1"));
+        assertEquals("10.0.0.1", IpAddress.normalize("10.0.0.1"));
+    }
+
+    @Test
+    void encode_shouldRejectInvalidAddresses() {
+        assertThrows(ValidationException.class, () -> IpAddress.encode(""));
+        assertThrows(ValidationException.class, () -> IpAddress.encode("256.0.0.1"));
+        assertThrows(ValidationException.class, () -> IpAddress.encode("10.0.0"));
+        assertThrows(ValidationException.class, () -> IpAddress.encode("10.0.0.-1"));
+        assertThrows(ValidationException.class, () -> IpAddress.encode("localhost"));
+        assertThrows(ValidationException.class, () -> IpAddress.encode("host:80"));
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.stats.model.HitPartition;
+import ru.practicum.stats.service.HitPartitionMaintenance;
+import ru.practicum.stats.service.HitPartitionRepository;
+import ru.practicum.stats.service.HitRollupRepository;
+import ru.practicum.stats.service.HitSketchRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HitPartitionMaintenanceTest {
+    private static final HitPartition DECEMBER = partition(2023, 12);
+    private static final HitPartition JANUARY = partition(2024, 1);
+
+    @Mock
+    private HitPartitionRepository partitionRepository;
+
+    @Mock
+    private HitRollupRepository rollupRepository;
+
+    @Mock
+    private HitSketchRepository sketchRepository;
+
+    @Test
+    void init_shouldCreateMissingPartitions() {
+        LocalDateTime now = LocalDateTime.now();
+        HitPartition current = HitPartition.starting(now, HitPartition.Interval.MONTH, 0).get(0);
+        HitPartition next = HitPartition.starting(now, HitPartition.Interval.MONTH, 1).get(1);
+        when(partitionRepository.isPartitioningSupported()).thenReturn(true);
+        when(partitionRepository.findPartitions()).thenReturn(List.of(current));
+        when(partitionRepository.findDefaultPartitionDays()).thenReturn(List.of(LocalDateTime.of(2024, 1, 17, 0, 0)));
+
+        maintenance(0, HitPartitionMaintenance.RetentionMode.DROP).init();
+
+        verify(partitionRepository).createDefaultPartition();
+        verify(partitionRepository).createPartition(JANUARY);
+        verify(partitionRepository).createPartition(next);
+        verify(partitionRepository, never()).createPartition(current);
+    }
+
+    @Test
+    void maintain_shouldDropPartitionsOlderThanRetention() {
+        HitPartition current = HitPartition.starting(LocalDateTime.now(), HitPartition.Interval.MONTH, 0).get(0);
+        when(partitionRepository.isPartitioningSupported()).thenReturn(true);
+        when(partitionRepository.findPartitions()).thenReturn(List.of(DECEMBER, JANUARY, current));
+
+        maintenance(30, HitPartitionMaintenance.RetentionMode.DROP).maintain();
+
+        verify(partitionRepository).dropPartition(DECEMBER);
+        verify(partitionRepository).dropPartition(JANUARY);
+        verify(partitionRepository, never()).dropPartition(current);
+        verify(partitionRepository, never()).detachPartition(any());
+        verify(partitionRepository).deleteHitsBefore(eq(HitPartition.DEFAULT_PARTITION), any());
+    }
+
+    @Test
+    void maintain_shouldDetachPartitionsForArchiving() {
+        when(partitionRepository.isPartitioningSupported()).thenReturn(true);
+        when(partitionRepository.findPartitions()).thenReturn(List.of(DECEMBER));
+
+        maintenance(30, HitPartitionMaintenance.RetentionMode.DETACH).maintain();
+
+        verify(partitionRepository).detachPartition(DECEMBER);
+        verify(partitionRepository, never()).dropPartition(any());
+    }
+
+    @Test
+    void maintain_shouldDeleteRowsWithoutPartitioning() {
+        when(partitionRepository.isPartitioningSupported()).thenReturn(false);
+
+        maintenance(30, HitPartitionMaintenance.RetentionMode.DROP).maintain();
+
+        verify(partitionRepository).deleteHitsBefore(eq(HitPartition.PARENT_TABLE), any());
+        verify(partitionRepository, never()).createPartition(any());
+        verify(partitionRepository, never()).dropPartition(any());
+    }
+
+    @Test
+    void maintain_shouldPruneAggregatesAtPartitionBoundary() {
+        LocalDateTime boundary = HitPartition.Interval.MONTH.floor(LocalDateTime.now().minusDays(30));
+        when(partitionRepository.isPartitioningSupported()).thenReturn(true);
+        when(partitionRepository.findPartitions()).thenReturn(List.of(DECEMBER));
+
+        maintenance(30, HitPartitionMaintenance.RetentionMode.DETACH).maintain();
+
+        verify(partitionRepository).deleteHitsBefore(HitPartition.DEFAULT_PARTITION, boundary);
+        verify(rollupRepository).deleteBucketsBefore(boundary);
+        verify(sketchRepository).deleteBucketsBefore(boundary);
+    }
+
+    @Test
+    void maintain_shouldKeepAggregatesWithoutRetention() {
+        when(partitionRepository.isPartitioningSupported()).thenReturn(false);
+
+        maintenance(0, HitPartitionMaintenance.RetentionMode.DROP).maintain();
+
+        verify(partitionRepository, never()).deleteHitsBefore(any(), any());
+        verify(rollupRepository, never()).deleteBucketsBefore(any());
+        verify(sketchRepository, never()).deleteBucketsBefore(any());
+    }
+
+    private HitPartitionMaintenance maintenance(int retentionDays, HitPartitionMaintenance.RetentionMode mode) {
+        return new HitPartitionMaintenance(partitionRepository, rollupRepository, sketchRepository,
+                HitPartition.Interval.MONTH, 2, retentionDays, mode);
+    }
+
+    private static HitPartition partition(int year, int month) {
+        LocalDateTime from = LocalDateTime.of(year, month, 1, 0, 0);
+        return new HitPartition(from, from.plusMonths(1));
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.EndpointHit;
+import ru.practicum.ViewStats;
+import ru.practicum.stats.mapper.EndpointHitMapperImpl;
+import ru.practicum.stats.model.EndpointHitEntity;
+import ru.practicum.stats.model.HitRollup;
+import ru.practicum.stats.model.HitSketch;
+import ru.practicum.stats.service.HitDictionary;
+import ru.practicum.stats.service.HitDictionaryRepository;
+import ru.practicum.stats.service.HitPartitionMaintenance;
+import ru.practicum.stats.service.HitPartitionRepository;
+import ru.practicum.stats.service.HitRollupRepository;
+import ru.practicum.stats.service.HitSketchRepository;
+import ru.practicum.stats.service.LegacyHitMigration;
+import ru.practicum.stats.service.StatsRepository;
+import ru.practicum.stats.service.StatsServiceImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({StatsServiceImpl.class, StatsRepository.class, HitDictionary.class, HitDictionaryRepository.class,
+        HitRollupRepository.class, HitSketchRepository.class, HitPartitionRepository.class,
+        HitPartitionMaintenance.class, EndpointHitMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LegacyHitMigrationTest {
+    private static final LocalDateTime START = LocalDateTime.of(2023, 7, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2023, 7, 3, 0, 0);
+
+    private static final List<EndpointHitEntity> LEGACY_HITS = List.of(
+            new EndpointHitEntity(1L, "ewm-main-service", "/events/1", "10.0.0.1", LocalDateTime.of(2023, 7, 1, 10, 0)),
+            new EndpointHitEntity(2L, "ewm-main-service", "/events/1", "10.0.0.1", LocalDateTime.of(2023, 7, 1, 11, 0)),
+            new EndpointHitEntity(3L, "ewm-main-service", "/events/1", "10.0.0.2", LocalDateTime.of(2023, 7, 2, 9, 0)),
+            new EndpointHitEntity(4L, "ewm-main-service", "/events/1", "not-an-ip", LocalDateTime.of(2023, 7, 2, 9, 0))
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private StatsServiceImpl statsService;
+
+    @Autowired
+    private StatsRepository statsRepository;
+
+    @Autowired
+    private HitRollupRepository rollupRepository;
+
+    @Autowired
+    private HitSketchRepository sketchRepository;
+
+    @Autowired
+    private HitPartitionMaintenance partitionMaintenance;
+
+    private LegacyHitMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE endpoint_hits (id BIGINT PRIMARY KEY, app VARCHAR(255) NOT NULL, " +
+                "uri VARCHAR(512) NOT NULL, ip VARCHAR(45) NOT NULL, timestamp TIMESTAMP NOT NULL)");
+        LEGACY_HITS.forEach(hit -> jdbcTemplate.update("INSERT INTO endpoint_hits VALUES (?, ?, ?, ?, ?)",
+                hit.getId(), hit.getApp(), hit.getUri(), hit.getIp(), hit.getTimestamp()));
+        migration = new LegacyHitMigration(jdbcTemplate, new TransactionTemplate(transactionManager),
+                statsRepository, rollupRepository, sketchRepository, partitionMaintenance);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS endpoint_hits");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS endpoint_hits_unaggregated");
+        jdbcTemplate.update("DELETE FROM endpoint_hit_log");
+        jdbcTemplate.update("DELETE FROM endpoint_hit_rollups");
+        jdbcTemplate.update("DELETE FROM endpoint_hit_daily_sketches");
+    }
+
+    @Test
+    void migrate_shouldAggregateHitsOfVersionsWithoutRollups() {
+        migration.init();
+        migration.migrate();
+
+        assertStats();
+    }
+
+    @Test
+    void migrate_shouldNotCountAggregatedHitsTwice() {
+        // Версия с агрегатами уже учла старые хиты в агрегатах и скетчах
+        List<EndpointHitEntity> valid = LEGACY_HITS.subList(0, 3);
+        rollupRepository.increment(HitRollup.aggregate(valid));
+        sketchRepository.merge(HitSketch.aggregate(valid));
+
+        migration.init();
+        migration.migrate();
+
+        assertStats();
+    }
+
+    @Test
+    void migrate_shouldAggregateRemainingHitsAfterRestart() {
+        migration.init();
+        // Хит, принятый до перезапуска, делает агрегаты непустыми раньше, чем перенесена старая таблица
+        statsService.saveHit(new EndpointHit("ewm-main-service", "/events/2", "10.0.0.3",
+                LocalDateTime.of(2023, 7, 1, 12, 0)));
+        migration.init();
+        migration.migrate();
+
+        assertStats();
+    }
+
+    private void assertStats() {
+        assertEquals(0, countTables());
+        assertEquals(3L, hits(statsService.getStats(START, END, List.of("/events/1"), false)));
+        assertEquals(2L, hits(statsService.getStats(START, END, List.of("/events/1"), true)));
+        assertEquals(2L, hits(statsService.getStats(START, END, List.of("/events/1"), true, true)));
+    }
+
+    private int countTables() {
+        Integer tables = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.tables " +
+                "WHERE UPPER(table_name) IN ('ENDPOINT_HITS', 'ENDPOINT_HITS_UNAGGREGATED')", Integer.class);
+        return tables == null ? 0 : tables;
+    }
+
+    private static long hits(List<ViewStats> stats) {
+        assertEquals(1, stats.size());
+        return stats.get(0).getHits();
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.stats.model.HitPartition;
+import ru.practicum.stats.service.HitDictionary;
+import ru.practicum.stats.service.HitDictionaryRepository;
+import ru.practicum.stats.service.HitPartitionMaintenance;
+import ru.practicum.stats.service.HitPartitionRepository;
+import ru.practicum.stats.service.HitRollupRepository;
+import ru.practicum.stats.service.HitDictionaryRepository.Dictionary;
+import ru.practicum.stats.service.HitSketchRepository;
+import ru.practicum.stats.service.StatsRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The {@link StatsQueryPlanTest} checks against a real PostgreSQL, where the
+ * composite index is covering and the table is partitioned. Plans are chosen
+ * from the statistics of 50 000 hits over 500 URIs. Runs only when
+ * {@code STATS_PLAN_TEST_DB_URL} (plus {@code _USER} and {@code _PASSWORD})
+ * points to a database; everything is created in a throwaway schema.
+ */
+@EnabledIfEnvironmentVariable(named = "STATS_PLAN_TEST_DB_URL", matches = ".+")
+class PostgresStatsQueryPlanTest {
+    private static final String SCHEMA = "stats_plan_test_" + System.nanoTime();
+
+    private static final LocalDateTime START = StatsQueryPlanTest.START;
+    private static final LocalDateTime END = StatsQueryPlanTest.END;
+    private static final List<String> URIS = StatsQueryPlanTest.URIS;
+
+    private static SingleConnectionDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static QueryPlanRecorder recorder;
+    private static StatsRepository statsRepository;
+
+    @BeforeAll
+    static void setUp() {
+        dataSource = new SingleConnectionDataSource(
+                System.getenv("STATS_PLAN_TEST_DB_URL"),
+                System.getenv("STATS_PLAN_TEST_DB_USER"),
+                System.getenv("STATS_PLAN_TEST_DB_PASSWORD"),
+                true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+
+        new ResourceDatabasePopulator(
+                new ClassPathResource("schema-postgres.sql"),
+                new ClassPathResource("schema.sql")).execute(dataSource);
+        HitPartitionRepository partitionRepository = new HitPartitionRepository(jdbcTemplate);
+        partitionRepository.createDefaultPartition();
+
+        NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        HitDictionary dictionary = new HitDictionary(new HitDictionaryRepository(namedJdbcTemplate), 1000);
+        dictionary.intern(Dictionary.APPS, List.of("ewm-main-service"));
+        dictionary.intern(Dictionary.URIS, IntStream.range(0, 500).mapToObj(i -> "/events/" + i).toList());
+        jdbcTemplate.update("INSERT INTO endpoint_hit_log (app_id, uri_id, ip, timestamp) " +
+                "SELECT a.id, u.id, int4send(n % 200), " +
+                "TIMESTAMP '2023-01-01 00:00:00' + n * INTERVAL '1 minute' " +
+                "FROM generate_series(1, 50000) AS n " +
+                "JOIN endpoint_hit_uris u ON u.uri = '/events/' || (n % 500) " +
+                "CROSS JOIN endpoint_hit_apps a");
+        // Хиты января и начала февраля 2023 переносятся из default в месячные секции
+        HitPartitionMaintenance maintenance = new HitPartitionMaintenance(partitionRepository,
+                new HitRollupRepository(namedJdbcTemplate), new HitSketchRepository(namedJdbcTemplate, dictionary),
+                HitPartition.Interval.MONTH, 1, 0, HitPartitionMaintenance.RetentionMode.DROP);
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource))
+                .executeWithoutResult(status -> maintenance.init());
+        // Планировщик выбирает индексы по собранной статистике, последовательное чтение не запрещается
+        jdbcTemplate.execute("VACUUM ANALYZE endpoint_hit_log");
+
+        recorder = new QueryPlanRecorder(jdbcTemplate);
+        statsRepository = new StatsRepository(recorder, dictionary);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (dataSource != null) {
+            jdbcTemplate.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+            dataSource.destroy();
+        }
+    }
+
+    @Test
+    void statsByUris_shouldUseCompositeIndex() {
+        String plan = recorder.explain(() -> {
+            statsRepository.getStats(START, END, URIS);
+            statsRepository.getUniqueStats(START, END, URIS);
+            statsRepository.getEdgeStats(START, START.plusHours(1), END.withMinute(0).withSecond(0), END, URIS);
+        });
+
+        assertTrue(plan.contains("uri_id_timestamp"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void statsByUris_shouldPruneOtherPartitions() {
+        String plan = recorder.explain(() -> statsRepository.getStats(START, END, URIS));
+
+        assertTrue(plan.contains("endpoint_hit_log_p20230101_20230201"), plan);
+        assertFalse(plan.contains("endpoint_hit_log_p20230201_20230301"), plan);
+    }
+
+    @Test
+    void statsForAllUris_shouldNotScanPartitionForOneDay() {
+        // За весь месяц без фильтра по URI секция читается целиком, и последовательное чтение там оправдано
+        LocalDateTime dayStart = LocalDateTime.of(2023, 1, 15, 0, 0);
+        String plan = recorder.explain(() -> statsRepository.getStats(dayStart, dayStart.plusDays(1), null));
+
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+}
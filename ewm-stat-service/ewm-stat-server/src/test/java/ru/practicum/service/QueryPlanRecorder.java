@@ -0,0 +1,39 @@
+package ru.practicum.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs {@code EXPLAIN} with the same parameters instead of every query it is
+ * given, so plan tests check the SQL a repository actually builds. Queries
+ * return no rows.
+ */
+class QueryPlanRecorder extends NamedParameterJdbcTemplate {
+    private final List<String> plans = new ArrayList<>();
+
+    QueryPlanRecorder(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    @Override
+    public <T> List<T> query(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper) {
+        List<String> plan = getJdbcTemplate().query(getPreparedStatementCreator("EXPLAIN " + sql, paramSource),
+                (rs, rowNum) -> rs.getString(1));
+        plans.add(String.join("\n", plan));
+        return List.of();
+    }
+
+    /**
+     * Plans of the queries issued by {@code queries}.
+     */
+    String explain(Runnable queries) {
+        plans.clear();
+        queries.run();
+        return String.join("\n", plans);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import ru.practicum.stats.service.HitDictionary;
+import ru.practicum.stats.service.HitDictionaryRepository;
+import ru.practicum.stats.service.StatsRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the index plan of the raw-hit queries behind {@code /stats}: with
+ * a URI filter they must use the composite (uri_id, timestamp) index, without
+ * one the timestamp index, and never a full table scan.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({HitDictionary.class, HitDictionaryRepository.class})
+@Sql(scripts = "classpath:test-dictionary.sql", config = @SqlConfig(transactionMode = SqlConfig.TransactionMode.ISOLATED))
+class StatsQueryPlanTest {
+    // Январь 2023 без полуночи 1 февраля: конец диапазона /stats входит в выборку
+    static final LocalDateTime START = LocalDateTime.of(2023, 1, 1, 0, 0);
+    static final LocalDateTime END = LocalDateTime.of(2023, 1, 31, 23, 59, 59);
+    static final List<String> URIS = List.of("/events/1", "/events/2");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private HitDictionary dictionary;
+
+    private QueryPlanRecorder recorder;
+    private StatsRepository statsRepository;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new QueryPlanRecorder(jdbcTemplate);
+        statsRepository = new StatsRepository(recorder, dictionary);
+    }
+
+    @Test
+    void statsByUris_shouldUseCompositeIndex() {
+        assertIndexScan(() -> statsRepository.getStats(START, END, URIS), "IDX_ENDPOINT_HIT_LOG_URI_TIMESTAMP");
+        assertIndexScan(() -> statsRepository.getUniqueStats(START, END, URIS), "IDX_ENDPOINT_HIT_LOG_URI_TIMESTAMP");
+        assertIndexScan(() -> statsRepository.getEdgeStats(START, START.plusHours(1), END.withMinute(0).withSecond(0),
+                END, URIS), "IDX_ENDPOINT_HIT_LOG_URI_TIMESTAMP");
+    }
+
+    @Test
+    void statsForAllUris_shouldUseTimestampIndex() {
+        assertIndexScan(() -> statsRepository.getStats(START, END, null), "IDX_ENDPOINT_HIT_LOG_TIMESTAMP");
+    }
+
+    private void assertIndexScan(Runnable query, String index) {
+        String plan = recorder.explain(query);
+
+        assertTrue(plan.contains(index), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+}
@@ -3,10 +3,14 @@ package ru.practicum.service;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
 import ru.practicum.ViewStats;
 import ru.practicum.stats.model.EndpointHitEntity;
+import ru.practicum.stats.service.HitDictionary;
+import ru.practicum.stats.service.HitDictionaryRepository;
 import ru.practicum.stats.service.StatsRepository;
 
 import java.time.LocalDateTime;
@@ -16,6 +20,8 @@ import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
 @ActiveProfiles("test")
+@Import({StatsRepository.class, HitDictionary.class, HitDictionaryRepository.class})
+@Sql(scripts = "classpath:test-dictionary.sql", config = @SqlConfig(transactionMode = SqlConfig.TransactionMode.ISOLATED))
 @Sql(scripts = "classpath:test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
 
 public class StatsRepositoryTest {
@@ -47,16 +53,33 @@ public class StatsRepositoryTest {
     }
 
     @Test
-    void save_shouldPersistEntity() {
-        EndpointHitEntity entity = new EndpointHitEntity();
-        entity.setApp("test-app");
-        entity.setUri("/test");
-        entity.setIp("127.0.0.1");
-        entity.setTimestamp(LocalDateTime.now());
+    void batchInsert_shouldPersistEncodedHits() {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 3, 1, 12, 0);
+        statsRepository.batchInsert(List.of(
+                new EndpointHitEntity(null, "repository-app", "/repository/1", "10.1.2.3", timestamp),
+                new EndpointHitEntity(null, "repository-app", "/repository/1", "2001:db8:0:0:0:0:0:1", timestamp)
+        ));
 
-        EndpointHitEntity saved = statsRepository.save(entity);
+        List<EndpointHitEntity> hits = statsRepository.getHitsAfter(0, 1000).stream()
+                .filter(hit -> hit.getUri().equals("/repository/1"))
+                .toList();
 
-        assertNotNull(saved.getId());
-        assertEquals(entity.getApp(), saved.getApp());
+        assertEquals(2, hits.size());
+        assertNotNull(hits.get(0).getId());
+        assertEquals("repository-app", hits.get(0).getApp());
+        assertEquals("10.1.2.3", hits.get(0).getIp());
+        assertEquals("2001:db8:0:0:0:0:0:1", hits.get(1).getIp());
+        assertEquals(timestamp, hits.get(1).getTimestamp());
+    }
+
+    @Test
+    void getStats_shouldReturnEmptyListForUnknownUris() {
+        List<ViewStats> stats = statsRepository.getStats(
+                LocalDateTime.of(2023, 1, 1, 0, 0),
+                LocalDateTime.of(2023, 12, 31, 23, 59),
+                List.of("/never-visited")
+        );
+
+        assertTrue(stats.isEmpty());
     }
 }
\ No newline at end of file
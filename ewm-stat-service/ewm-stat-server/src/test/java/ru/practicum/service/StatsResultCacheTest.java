@@ -0,0 +1,125 @@
+package ru.practicum.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.ViewStats;
+import ru.practicum.stats.service.StatsResultCache;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatsResultCacheTest {
+    private static final LocalDateTime START = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<String>> loadedUris = new ArrayList<>();
+    private final List<LocalDateTime> loadedEnds = new ArrayList<>();
+
+    private final StatsResultCache.Loader loader = (start, end, uris) -> {
+        loadedUris.add(uris);
+        loadedEnds.add(end);
+        return uris == null
+                ? List.of(new ViewStats("app", "/events/1", 5L), new ViewStats("app", "/events/2", 3L))
+                : uris.stream()
+                .filter(uri -> !uri.equals("/events/404"))
+                .map(uri -> new ViewStats("app", uri, (long) uri.length()))
+                .toList();
+    };
+
+    @Test
+    void get_shouldShareEntriesWithinGranularity() {
+        StatsResultCache cache = new StatsResultCache(true, 60, 100, 60_000, meterRegistry);
+
+        cache.get(START, START.plusDays(1).plusSeconds(5), List.of("/events/1"), true, false, loader);
+        List<ViewStats> stats = cache.get(START, START.plusDays(1).plusSeconds(42), List.of("/events/1"),
+                true, false, loader);
+
+        assertEquals(1, loadedUris.size());
+        assertEquals(START.plusDays(1).plusSeconds(5), loadedEnds.get(0));
+        assertEquals(List.of(new ViewStats("app", "/events/1", 9L)), stats);
+        assertEquals(0.5, cache.hitRatio());
+    }
+
+    @Test
+    void get_shouldCountHitsInsideLastPartialStep() {
+        StatsResultCache cache = new StatsResultCache(true, 60, 100, 60_000, meterRegistry);
+        List<LocalDateTime> hits = List.of(START.minusSeconds(30), START.plusHours(1), START.plusDays(1).plusSeconds(30));
+        StatsResultCache.Loader hitLoader = (start, end, uris) -> List.of(new ViewStats("app", "/events/1",
+                hits.stream().filter(hit -> !hit.isBefore(start) && !hit.isAfter(end)).count()));
+
+        List<ViewStats> stats = cache.get(START.plusSeconds(10), START.plusDays(1).plusSeconds(45),
+                List.of("/events/1"), false, false, hitLoader);
+
+        // Хит до начала окна не считается, хит последней неполной минуты считается
+        assertEquals(List.of(new ViewStats("app", "/events/1", 2L)), stats);
+    }
+
+    @Test
+    void get_shouldLoadOnlyMissingUris() {
+        StatsResultCache cache = new StatsResultCache(true, 60, 100, 60_000, meterRegistry);
+
+        cache.get(START, START.plusDays(1), List.of("/events/1", "/events/404"), false, false, loader);
+        List<ViewStats> stats = cache.get(START, START.plusDays(1), List.of("/events/404", "/events/1", "/events/22"),
+                false, false, loader);
+
+        assertEquals(List.of(List.of("/events/1", "/events/404"), List.of("/events/22")), loadedUris);
+        assertEquals(List.of("/events/22", "/events/1"), stats.stream().map(ViewStats::getUri).toList());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void get_shouldKeepUniqueAndTotalCountsApart() {
+        StatsResultCache cache = new StatsResultCache(true, 60, 100, 60_000, meterRegistry);
+
+        cache.get(START, START.plusDays(1), List.of("/events/1"), false, false, loader);
+        cache.get(START, START.plusDays(1), List.of("/events/1"), true, false, loader);
+
+        assertEquals(2, loadedUris.size());
+    }
+
+    @Test
+    void get_shouldCacheRequestsForAllUris() {
+        StatsResultCache cache = new StatsResultCache(true, 60, 100, 60_000, meterRegistry);
+
+        cache.get(START, START.plusDays(1), null, false, false, loader);
+        List<ViewStats> stats = cache.get(START, START.plusDays(1), null, false, false, loader);
+
+        assertEquals(1, loadedUris.size());
+        assertEquals(2, stats.size());
+    }
+
+    @Test
+    void get_shouldEvictLeastRecentlyUsedEntries() {
+        StatsResultCache cache = new StatsResultCache(true, 60, 2, 60_000, meterRegistry);
+
+        cache.get(START, START.plusDays(1), List.of("/events/1", "/events/2", "/events/3"), false, false, loader);
+
+        assertEquals(2, cache.size());
+        assertEquals(1.0, meterRegistry.get("cache.evictions").counter().count());
+    }
+
+    @Test
+    void get_shouldBypassCacheForWindowsShorterThanGranularity() {
+        StatsResultCache cache = new StatsResultCache(true, 60, 100, 60_000, meterRegistry);
+
+        cache.get(START.plusSeconds(10), START.plusSeconds(50), List.of("/events/1"), false, false, loader);
+        cache.get(START.plusSeconds(10), START.plusSeconds(50), List.of("/events/1"), false, false, loader);
+
+        assertEquals(2, loadedUris.size());
+        assertEquals(START.plusSeconds(50), loadedEnds.get(0));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_shouldNotExposeCachedObjects() {
+        StatsResultCache cache = new StatsResultCache(true, 60, 100, 60_000, meterRegistry);
+
+        cache.get(START, START.plusDays(1), List.of("/events/1"), false, false, loader).get(0).setHits(0L);
+        List<ViewStats> stats = cache.get(START, START.plusDays(1), List.of("/events/1"), false, false, loader);
+
+        assertEquals(9L, stats.get(0).getHits());
+    }
+}
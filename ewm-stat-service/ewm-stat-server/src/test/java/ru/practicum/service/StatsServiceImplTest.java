@@ -6,24 +6,46 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
 import ru.practicum.EndpointHit;
 import ru.practicum.ViewStats;
 import ru.practicum.stats.mapper.EndpointHitMapperImpl;
+import ru.practicum.stats.model.HitPartition;
+import ru.practicum.stats.service.HitDictionary;
+import ru.practicum.stats.service.HitDictionaryRepository;
+import ru.practicum.stats.service.HitPartitionMaintenance;
+import ru.practicum.stats.service.HitPartitionRepository;
+import ru.practicum.stats.service.HitRollupRepository;
+import ru.practicum.stats.service.HitSketchRepository;
+import ru.practicum.stats.service.StatsRepository;
 import ru.practicum.stats.service.StatsServiceImpl;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @DataJpaTest
 @ActiveProfiles("test")
-@Import({StatsServiceImpl.class, EndpointHitMapperImpl.class})
+@Import({StatsServiceImpl.class, StatsRepository.class, HitDictionary.class, HitDictionaryRepository.class,
+        HitRollupRepository.class, HitSketchRepository.class, HitPartitionRepository.class, EndpointHitMapperImpl.class})
+@Sql(scripts = "classpath:test-dictionary.sql", config = @SqlConfig(transactionMode = SqlConfig.TransactionMode.ISOLATED))
 @Sql(scripts = "classpath:test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
 public class StatsServiceImplTest {
     @Autowired
     private StatsServiceImpl statsService;
 
+    @Autowired
+    private HitPartitionRepository partitionRepository;
+
+    @Autowired
+    private HitRollupRepository rollupRepository;
+
+    @Autowired
+    private HitSketchRepository sketchRepository;
+
     @Test
     void saveHit_shouldSaveEntity() {
         EndpointHit hit = new EndpointHit();
@@ -45,6 +67,50 @@ public class StatsServiceImplTest {
         assertEquals("/test", stats.get(0).getUri());
     }
 
+    @Test
+    void saveHits_shouldSaveAllEntities() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EndpointHit> hits = List.of(
+                new EndpointHit("test-app", "/batch", "127.0.0.1", now),
+                new EndpointHit("test-app", "/batch", "127.0.0.2", now),
+                new EndpointHit("test-app", "/batch", "127.0.0.2", now)
+        );
+
+        statsService.saveHits(hits);
+
+        List<ViewStats> stats = statsService.getStats(
+                now.minusDays(1),
+                now.plusDays(1),
+                List.of("/batch"),
+                false
+        );
+
+        assertEquals(1, stats.size());
+        assertEquals(3L, stats.get(0).getHits());
+    }
+
+    @Test
+    void saveHits_shouldSkipOnlyHitsWithInvalidIp() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EndpointHit> hits = List.of(
+                new EndpointHit("test-app", "/partial", "127.0.0.1", now),
+                new EndpointHit("test-app", "/partial", "not-an-ip", now),
+                new EndpointHit("test-app", "/partial", "127.0.0.2", now)
+        );
+
+        statsService.saveHits(hits);
+
+        List<ViewStats> stats = statsService.getStats(
+                now.minusDays(1),
+                now.plusDays(1),
+                List.of("/partial"),
+                false
+        );
+
+        assertEquals(1, stats.size());
+        assertEquals(2L, stats.get(0).getHits());
+    }
+
     @Test
     void getStats_shouldReturnCorrectCount() {
         List<ViewStats> stats = statsService.getStats(
@@ -70,4 +136,86 @@ public class StatsServiceImplTest {
         assertEquals(1, stats.size());
         assertEquals(1L, stats.get(0).getHits()); // В тестовых данных 2 хита с одинаковым IP
     }
-}
\ No newline at end of file
+
+    @Test
+    void getStats_shouldCombineRollupsWithEdgeHits() {
+        List<ViewStats> stats = statsService.getStats(
+                LocalDateTime.of(2023, 7, 18, 10, 30),
+                LocalDateTime.of(2023, 7, 18, 12, 0),
+                List.of("/events/1", "/events/2"),
+                false
+        );
+
+        // 10:30-11:00 и 12:00 берутся из сырых хитов, 11:00-12:00 из агрегатов
+        Map<String, Long> hitsByUri = stats.stream()
+                .collect(Collectors.toMap(ViewStats::getUri, ViewStats::getHits));
+        assertEquals(Map.of("/events/1", 1L, "/events/2", 1L), hitsByUri);
+    }
+
+    @Test
+    void saveHits_shouldIncrementExistingRollup() {
+        statsService.saveHits(List.of(
+                new EndpointHit("ewm-main-service", "/events/1", "10.0.0.1", LocalDateTime.of(2023, 7, 18, 10, 15)),
+                new EndpointHit("ewm-main-service", "/events/1", "10.0.0.2", LocalDateTime.of(2023, 7, 18, 10, 45))
+        ));
+
+        List<ViewStats> stats = statsService.getStats(
+                LocalDateTime.of(2023, 7, 18, 0, 0),
+                LocalDateTime.of(2023, 7, 19, 0, 0),
+                List.of("/events/1"),
+                false
+        );
+
+        assertEquals(1, stats.size());
+        assertEquals(4L, stats.get(0).getHits());
+    }
+
+    @Test
+    void getStats_shouldEstimateUniqueVisitorsFromSketches() {
+        statsService.saveHits(List.of(
+                new EndpointHit("ewm-main-service", "/events/3", "10.0.0.1", LocalDateTime.of(2023, 7, 20, 10, 0)),
+                new EndpointHit("ewm-main-service", "/events/3", "10.0.0.1", LocalDateTime.of(2023, 7, 21, 10, 0)),
+                new EndpointHit("ewm-main-service", "/events/3", "10.0.0.2", LocalDateTime.of(2023, 7, 21, 11, 0)),
+                new EndpointHit("ewm-main-service", "/events/3", "10.0.0.3", LocalDateTime.of(2023, 7, 22, 9, 0))
+        ));
+
+        // 20-21 июля берутся из скетчей, утро 22 июля из сырых хитов
+        List<ViewStats> stats = statsService.getStats(
+                LocalDateTime.of(2023, 7, 20, 0, 0),
+                LocalDateTime.of(2023, 7, 22, 12, 0),
+                List.of("/events/3"),
+                true,
+                true
+        );
+
+        assertEquals(1, stats.size());
+        assertEquals(3L, stats.get(0).getHits());
+    }
+
+    @Test
+    void getStats_shouldAgreeAcrossModesAfterRetention() {
+        LocalDateTime now = LocalDateTime.now();
+        statsService.saveHits(List.of(
+                new EndpointHit("ewm-main-service", "/events/4", "10.0.0.1", now.minusDays(90)),
+                new EndpointHit("ewm-main-service", "/events/4", "10.0.0.2", now.minusDays(60)),
+                new EndpointHit("ewm-main-service", "/events/4", "10.0.0.3", now.minusDays(5)),
+                new EndpointHit("ewm-main-service", "/events/4", "10.0.0.3", now.minusDays(4)),
+                new EndpointHit("ewm-main-service", "/events/4", "10.0.0.4", now.minusDays(3))
+        ));
+
+        new HitPartitionMaintenance(partitionRepository, rollupRepository, sketchRepository,
+                HitPartition.Interval.DAY, 0, 30, HitPartitionMaintenance.RetentionMode.DROP).maintain();
+
+        // Старые хиты удалены вместе с агрегатами, поэтому все режимы видят один и тот же период
+        LocalDateTime start = now.minusDays(120);
+        LocalDateTime end = now.plusDays(1);
+        assertEquals(3L, hits(statsService.getStats(start, end, List.of("/events/4"), false)));
+        assertEquals(2L, hits(statsService.getStats(start, end, List.of("/events/4"), true)));
+        assertEquals(2L, hits(statsService.getStats(start, end, List.of("/events/4"), true, true)));
+    }
+
+    private static long hits(List<ViewStats> stats) {
+        assertEquals(1, stats.size());
+        return stats.get(0).getHits();
+    }
+}
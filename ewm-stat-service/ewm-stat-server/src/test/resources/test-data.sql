@@ -1,5 +1,16 @@
-INSERT INTO endpoint_hits (app, uri, ip, timestamp)
+-- Словари заполняет test-dictionary.sql; ip 192.168.1.1 и 192.168.1.2 в двоичном виде
+INSERT INTO endpoint_hit_log (app_id, uri_id, ip, timestamp)
+SELECT a.id, u.id, h.ip, h.timestamp
+FROM (VALUES
+    ('ewm-main-service', '/events/1', X'C0A80101', TIMESTAMP '2023-07-18 10:00:00'),
+    ('ewm-main-service', '/events/1', X'C0A80101', TIMESTAMP '2023-07-18 11:00:00'),
+    ('ewm-main-service', '/events/2', X'C0A80102', TIMESTAMP '2023-07-18 12:00:00')
+) AS h (app, uri, ip, timestamp)
+JOIN endpoint_hit_apps a ON a.app = h.app
+JOIN endpoint_hit_uris u ON u.uri = h.uri;
+
+INSERT INTO endpoint_hit_rollups (app, uri, bucket_start, hits)
 VALUES
-('ewm-main-service', '/events/1', '192.168.1.1', '2023-07-18 10:00:00'),
-('ewm-main-service', '/events/1', '192.168.1.1', '2023-07-18 11:00:00'),
-('ewm-main-service', '/events/2', '192.168.1.2', '2023-07-18 12:00:00');
\ No newline at end of file
+('ewm-main-service', '/events/1', '2023-07-18 10:00:00', 1),
+('ewm-main-service', '/events/1', '2023-07-18 11:00:00', 1),
+('ewm-main-service', '/events/2', '2023-07-18 12:00:00', 1);
\ No newline at end of file
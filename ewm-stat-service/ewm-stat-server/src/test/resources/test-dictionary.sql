@@ -0,0 +1,4 @@
+MERGE INTO endpoint_hit_apps (app) KEY (app) VALUES ('ewm-main-service');
+
+MERGE INTO endpoint_hit_uris (uri) KEY (uri) VALUES ('/events/1');
+MERGE INTO endpoint_hit_uris (uri) KEY (uri) VALUES ('/events/2');